@@ -0,0 +1,93 @@
+package weather.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import weather.ForecastClassifier;
+
+/**
+ * Icon lookup for every text in short-forecasts.txt, day and night, as the
+ * screens do it: JavaFX.getWeatherIconPath is a call to the default
+ * classifier's iconPath. Reported per lookup.
+ *
+ * firstSight compiles a fresh classifier for every pass, so each text goes
+ * through the keyword matcher instead of hitting the memo; the compile cost
+ * is included, spread over the lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IconClassifierBenchmark {
+    // lookups per invocation; must match the corpus size checked in load()
+    static final int LOOKUPS = 2 * 46;
+
+    private String[] corpus;
+    private ForecastClassifier classifier;
+    private List<String> rules;
+
+    @Setup
+    public void load() throws IOException {
+        List<String> texts = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                IconClassifierBenchmark.class.getResourceAsStream("/short-forecasts.txt"), StandardCharsets.UTF_8))) {
+            for (String line = r.readLine(); line != null; line = r.readLine()) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    texts.add(line);
+                }
+            }
+        }
+        if (texts.size() * 2 != LOOKUPS) {
+            throw new IllegalStateException("Corpus has " + texts.size() + " texts, update LOOKUPS");
+        }
+        corpus = texts.toArray(new String[0]);
+        classifier = ForecastClassifier.getDefault();
+
+        rules = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                ForecastClassifier.class.getResourceAsStream(ForecastClassifier.RULES_RESOURCE), StandardCharsets.UTF_8))) {
+            for (String line = r.readLine(); line != null; line = r.readLine()) {
+                rules.add(line);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void iconPath(Blackhole bh) {
+        for (String text : corpus) {
+            bh.consume(classifier.iconPath(text, false));
+            bh.consume(classifier.iconPath(text, true));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void firstSight(Blackhole bh) {
+        ForecastClassifier fresh = ForecastClassifier.parse(rules);
+        for (String text : corpus) {
+            bh.consume(fresh.iconPath(text, false));
+            bh.consume(fresh.iconPath(text, true));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package weather.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weather.ContentDecoder;
+import weather.Forecast;
+import weather.ForecastParser;
+import weather.HourlySeries;
+import weather.Root;
+import weather.WeatherAPI;
+
+/**
+ * Decoding a response body, for each recorded payload size.
+ *
+ * getObject is the String + Jackson data-binding path; streamingParse is the
+ * ForecastParser path the async fetch uses now, straight from the bytes;
+ * gzipStreamingParse is the same with the body gzip-compressed on the wire,
+ * inflated by ContentDecoder while the parser reads it.
+ * hourlySeries only runs on the hourly payload, which is the one the app
+ * decodes into columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmark {
+    @Param({"small", "typical", "hourly"})
+    public String payload;
+
+    private String json;
+    private byte[] body;
+    private byte[] gzipped;
+    private final ContentDecoder decoder = new ContentDecoder();
+
+    @Setup
+    public void load() {
+        json = Payloads.text(payload);
+        body = Payloads.bytes(payload);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        gzipped = out.toByteArray();
+        if (WeatherAPI.getObject(json) == null) {
+            throw new IllegalStateException(payload + " does not parse");
+        }
+    }
+
+    @Benchmark
+    public Root getObject() {
+        return WeatherAPI.getObject(json);
+    }
+
+    @Benchmark
+    public Forecast streamingParse() throws IOException {
+        return ForecastParser.parse(body);
+    }
+
+    @Benchmark
+    public Forecast gzipStreamingParse() throws IOException {
+        try (InputStream in = decoder.decode(new ByteArrayInputStream(gzipped), "gzip")) {
+            return ForecastParser.parse(in);
+        }
+    }
+
+    @Benchmark
+    public HourlySeries hourlySeries() throws IOException {
+        if (!payload.equals("hourly")) {
+            return null; // not a shape the app decodes this way
+        }
+        return ForecastParser.parseHourly(body);
+    }
+}
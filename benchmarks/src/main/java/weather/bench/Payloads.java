@@ -0,0 +1,45 @@
+package weather.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// recorded API responses bundled with the benchmarks (see pom.xml)
+final class Payloads {
+    private Payloads() {
+    }
+
+    // small: two periods; typical: the 14-period /forecast; hourly: 156 periods from /forecast/hourly
+    static String resourceFor(String name) {
+        switch (name) {
+            case "small":
+                return "/payloads/forecast-small.json";
+            case "typical":
+                return "/payloads/forecast-LOT-77-70.json";
+            case "hourly":
+                return "/payloads/forecast-hourly-LOT-77-70.json";
+            default:
+                throw new IllegalArgumentException("Unknown payload " + name);
+        }
+    }
+
+    static byte[] bytes(String name) {
+        String resource = resourceFor(name);
+        try (InputStream in = Payloads.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + resource);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String text(String name) {
+        return new String(bytes(name), StandardCharsets.UTF_8);
+    }
+}
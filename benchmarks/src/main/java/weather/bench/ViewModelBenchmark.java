@@ -0,0 +1,62 @@
+package weather.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weather.ForecastClassifier;
+import weather.ForecastParser;
+import weather.ForecastSummary;
+import weather.Period;
+
+/**
+ * Building the texts the screens show from parsed periods, i.e. the
+ * ForecastSummary.build call the app runs off the FX thread before handing
+ * the result to ForecastViewModel.apply.
+ *
+ * todayScene gets the first two periods only (today and tonight), which is
+ * all the today screen reads; forecastScene gets the whole week and pairs
+ * it into day cards. Copying into the JavaFX properties is not covered:
+ * that half needs the toolkit, and is timed by ForecastStripBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ViewModelBenchmark {
+    private ArrayList<Period> today;
+    private ArrayList<Period> week;
+    private BiFunction<String, Boolean, String> iconPaths;
+
+    @Setup
+    public void load() throws IOException {
+        week = ForecastParser.parse(Payloads.bytes("typical")).periods;
+        today = new ArrayList<>(week.subList(0, 2));
+        ForecastClassifier classifier = ForecastClassifier.getDefault();
+        iconPaths = classifier::iconPath;
+    }
+
+    @Benchmark
+    public ForecastSummary todayScene() {
+        return ForecastSummary.build("Chicago", today, iconPaths);
+    }
+
+    @Benchmark
+    public ForecastSummary forecastScene() {
+        return ForecastSummary.build("Chicago", week, iconPaths);
+    }
+}
@@ -0,0 +1,211 @@
+// JavaFX imports for the card cell
+import javafx.collections.ObservableList; // Days shown by the strip
+import javafx.geometry.Insets;         // Padding inside the card
+import javafx.geometry.Orientation;    // Lays the strip out left to right
+import javafx.geometry.Pos;            // Centers the card contents
+import javafx.scene.control.ContentDisplay; // Cell shows only its graphic
+import javafx.scene.control.Label;     // Card texts
+import javafx.scene.control.ListCell;  // Recycled cell of the forecast ListView
+import javafx.scene.control.ListView;  // Virtualized strip of cards
+import javafx.scene.image.ImageView;   // Day and night icons
+import javafx.scene.layout.HBox;       // Separator container
+import javafx.scene.layout.VBox;       // Card and section layout
+import javafx.scene.paint.Color;       // Text and line colors
+import javafx.scene.shape.Rectangle;   // Separator lines
+import javafx.scene.text.Font;         // For font manipulation
+import javafx.scene.text.FontWeight;   // For font weight (bold, etc.)
+
+// Custom weather classes
+import weather.ForecastSummary;        // Texts and icons of one day card
+
+/**
+ * Forecast Card Cell
+ * Purpose: one card of the 7-day (or hourly) forecast strip, recycled while scrolling
+ * Process:
+ * - The ListView only creates as many cells as fit on screen (plus one or two spare)
+ * - Each cell builds its card nodes once, bound to its own DayCardModel
+ * - When the ListView scrolls, it hands the cell a different DayCard; updateItem()
+ *   copies those texts into the model and the bound labels and icons follow
+ * Location: createStrip() builds the list used by JavaFX.createForecastScene()
+ */
+public final class ForecastCardCell extends ListCell<ForecastSummary.DayCard> {
+  // width of a card plus the gap to the next one; the list uses it as its fixed cell size
+  public static final double CELL_WIDTH = 265;
+
+  private final ForecastViewModel.DayCardModel model = new ForecastViewModel.DayCardModel();
+  private final VBox card;
+
+  public ForecastCardCell() {
+    ForecastViewModel.SectionModel dayPeriod = model.day;
+    ForecastViewModel.SectionModel nightPeriod = model.night;
+
+    // Create a card for this day
+    card = new VBox(5);
+    card.setAlignment(Pos.CENTER);
+    card.setPadding(new Insets(15));
+    card.getStyleClass().add("forecast-card");
+    card.setPrefWidth(250);
+
+    Label dateLabel = new Label();
+    dateLabel.textProperty().bind(model.title);
+    dateLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 16));
+    dateLabel.setTextFill(Color.web("#ffffff"));
+    dateLabel.setAlignment(Pos.CENTER);
+    dateLabel.setPrefWidth(190);
+    dateLabel.setPadding(new Insets(5, 0, 10, 0));
+
+    card.getChildren().add(dateLabel);
+
+    // Day section
+    VBox daySection = new VBox(5);
+    daySection.setAlignment(Pos.CENTER);
+    daySection.setPadding(new Insets(5));
+
+    Label dayTimeLabel = new Label("Day");
+    dayTimeLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 14));
+    dayTimeLabel.setTextFill(Color.web("#ffffff"));
+
+    // Day icon
+    ImageView dayIcon = IconCache.getShared().createView(dayPeriod.iconPath, 40);
+
+    // Day temperature - make sure it's visible
+    Label dayTempLabel = new Label();
+    dayTempLabel.textProperty().bind(dayPeriod.temperature);
+    dayTempLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 20));
+    dayTempLabel.setTextFill(Color.WHITE);
+    dayTempLabel.setAlignment(Pos.CENTER);
+    dayTempLabel.setMaxWidth(Double.MAX_VALUE);
+
+    // Day forecast - keep it concise and centered
+    Label dayDescLabel = new Label();
+    dayDescLabel.textProperty().bind(dayPeriod.description);
+    dayDescLabel.setFont(Font.font("Verdana", 12));
+    dayDescLabel.setWrapText(true);
+    dayDescLabel.setTextFill(Color.WHITE);
+    dayDescLabel.setAlignment(Pos.CENTER);
+    dayDescLabel.setMaxWidth(Double.MAX_VALUE);
+
+    // Day precipitation
+    Label dayPrecipLabel = new Label();
+    dayPrecipLabel.textProperty().bind(dayPeriod.precipitation);
+    dayPrecipLabel.setFont(Font.font("Verdana", 12));
+    dayPrecipLabel.setTextFill(Color.WHITE);
+    dayPrecipLabel.setAlignment(Pos.CENTER);
+    dayPrecipLabel.setMaxWidth(Double.MAX_VALUE);
+
+    // Day wind
+    Label dayWindLabel = new Label();
+    dayWindLabel.textProperty().bind(dayPeriod.wind);
+    dayWindLabel.setFont(Font.font("Verdana", 12));
+    dayWindLabel.setTextFill(Color.WHITE);
+    dayWindLabel.setWrapText(true);
+    dayWindLabel.setAlignment(Pos.CENTER);
+    dayWindLabel.setMaxWidth(Double.MAX_VALUE);
+
+    daySection.getChildren().addAll(dayTimeLabel, dayIcon, dayTempLabel, dayDescLabel, dayPrecipLabel, dayWindLabel);
+
+    // Add a background to make text more visible
+
+    card.getChildren().add(daySection);
+
+    // Simple separator line
+    HBox separator = new HBox();
+    separator.setPrefWidth(180);
+    separator.setPrefHeight(20);separator.setAlignment(Pos.CENTER);
+    separator.setPadding(new Insets(5, 0, 15, 0));
+
+    // Create simple line
+    Rectangle separatorLine = new Rectangle(180, 1);
+    separatorLine.setFill(Color.WHITE);
+    separator.setOpacity(0.5);
+
+    // Add separator to container
+    separator.getChildren().add(separatorLine);
+
+    // Insert separator after the date label
+    card.getChildren().add(1, separator);
+
+    // Night section
+    VBox nightSection = new VBox(5);
+    nightSection.setAlignment(Pos.CENTER);
+    nightSection.setPadding(new Insets(5));
+
+    // Label for night sections
+    Label nightTimeLabel = new Label("Night");
+    nightTimeLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 14));
+    nightTimeLabel.setTextFill(Color.web("#ffffff"));
+
+    // Night icon
+    ImageView nightIcon = IconCache.getShared().createView(nightPeriod.iconPath, 40);
+
+    // Night temperature - make sure it's visible
+    Label nightTempLabel = new Label();
+    nightTempLabel.textProperty().bind(nightPeriod.temperature);
+    nightTempLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 20));
+    nightTempLabel.setTextFill(Color.WHITE);
+    nightTempLabel.setAlignment(Pos.CENTER);
+    nightTempLabel.setMaxWidth(Double.MAX_VALUE);
+
+    // Night forecast - keep it concise and centered ("Sunny" already reads "Clear skies")
+    Label nightDescLabel = new Label();
+    nightDescLabel.textProperty().bind(nightPeriod.description);
+    nightDescLabel.setFont(Font.font("Verdana", 12));
+    nightDescLabel.setWrapText(true);
+    nightDescLabel.setTextFill(Color.WHITE);
+    nightDescLabel.setAlignment(Pos.CENTER);
+    nightDescLabel.setMaxWidth(Double.MAX_VALUE);
+
+    // Night precipitation
+    Label nightPrecipLabel = new Label();
+    nightPrecipLabel.textProperty().bind(nightPeriod.precipitation);
+    nightPrecipLabel.setFont(Font.font("Verdana", 12));
+    nightPrecipLabel.setTextFill(Color.WHITE);
+    nightPrecipLabel.setAlignment(Pos.CENTER);
+    nightPrecipLabel.setMaxWidth(Double.MAX_VALUE);
+
+    // Night wind
+    Label nightWindLabel = new Label();
+    nightWindLabel.textProperty().bind(nightPeriod.wind);
+    nightWindLabel.setFont(Font.font("Verdana", 12));
+    nightWindLabel.setTextFill(Color.WHITE);
+    nightWindLabel.setWrapText(true);
+    nightWindLabel.setAlignment(Pos.CENTER);
+    nightWindLabel.setMaxWidth(Double.MAX_VALUE);
+
+    nightSection.getChildren().addAll(nightTimeLabel, nightIcon, nightTempLabel, nightDescLabel, nightPrecipLabel, nightWindLabel);
+
+    // Add a horizontal separator line
+    Rectangle nightSeparator = new Rectangle(180, 1);
+    nightSeparator.setFill(Color.WHITE);
+    nightSeparator.setOpacity(0.5);
+
+    // Add the separator and night section
+    card.getChildren().addAll(nightSeparator, nightSection);
+
+    setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+  }
+
+  // horizontal list of cards for the given days; the list follows later changes to items
+  public static ListView<ForecastSummary.DayCard> createStrip(ObservableList<ForecastSummary.DayCard> items) {
+    ListView<ForecastSummary.DayCard> list = new ListView<>(items);
+    list.setOrientation(Orientation.HORIZONTAL);
+    // every cell is the same width, so the list doesn't measure cells to lay them out
+    list.setFixedCellSize(CELL_WIDTH);
+    list.setFocusTraversable(false);
+    list.setCellFactory(view -> new ForecastCardCell());
+    list.getStyleClass().add("forecast-list");
+    return list;
+  }
+
+  // called by the ListView whenever this cell is given a (different) day, or none
+  @Override
+  protected void updateItem(ForecastSummary.DayCard item, boolean empty) {
+    super.updateItem(item, empty);
+    if (empty || item == null) {
+      setGraphic(null);
+    } else {
+      model.apply(item);
+      setGraphic(card);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+// JavaFX property imports
+import javafx.beans.property.SimpleStringProperty;  // Default StringProperty implementation
+import javafx.beans.property.StringProperty;        // Text values the labels bind to
+import javafx.collections.FXCollections;            // Creates the observable day list
+import javafx.collections.ObservableList;           // Items of the forecast ListView
+
+// Custom weather classes
+import weather.ForecastSummary;        // Plain texts prepared off the FX thread
+
+/**
+ * Forecast View Model
+ * Purpose: observable values behind the today and 7-day screens
+ * Process:
+ * - The screens are built once and their labels/icons bind to these properties
+ * - Switching city only calls apply(), which copies the new texts into the properties
+ * - The forecast cards are an observable list of plain DayCards; the ListView turns only
+ *   the visible ones into cells, each with its own DayCardModel
+ * Location: Owned by JavaFX, updated on the FX Application Thread only
+ */
+public class ForecastViewModel {
+
+  // one day or night block (mirrors ForecastSummary.Section)
+  public static class SectionModel {
+    public final StringProperty name = new SimpleStringProperty("");
+    public final StringProperty temperature = new SimpleStringProperty("");
+    public final StringProperty description = new SimpleStringProperty("");
+    public final StringProperty iconPath = new SimpleStringProperty();
+    public final StringProperty precipitation = new SimpleStringProperty("");
+    public final StringProperty wind = new SimpleStringProperty("");
+
+    void apply(ForecastSummary.Section section) {
+      name.set(section.name);
+      temperature.set(section.temperature);
+      description.set(section.description);
+      iconPath.set(section.iconPath);
+      precipitation.set(section.precipitation);
+      wind.set(section.wind);
+    }
+  }
+
+  // one card of the 7-day screen, owned by a ForecastCardCell
+  public static class DayCardModel {
+    public final StringProperty title = new SimpleStringProperty("");
+    public final SectionModel day = new SectionModel();
+    public final SectionModel night = new SectionModel();
+
+    void apply(ForecastSummary.DayCard card) {
+      title.set(card.title);
+      day.apply(card.day);
+      night.apply(card.night);
+    }
+  }
+
+  public final StringProperty city = new SimpleStringProperty("");
+  public final StringProperty detailedForecast = new SimpleStringProperty("");
+  public final StringProperty todayWind = new SimpleStringProperty("");
+  public final StringProperty todayPrecipitation = new SimpleStringProperty("");
+  public final SectionModel today = new SectionModel();
+  public final SectionModel tonight = new SectionModel();
+
+  // the cards of the forecast strip, in order
+  public final ObservableList<ForecastSummary.DayCard> days = FXCollections.observableArrayList();
+
+  // copies a new forecast into the properties; the bound nodes update themselves
+  public void apply(ForecastSummary summary) {
+    city.set(summary.city);
+    detailedForecast.set(summary.detailedForecast);
+    todayWind.set(summary.todayWind);
+    todayPrecipitation.set(summary.todayPrecipitation);
+    today.apply(summary.today);
+    tonight.apply(summary.tonight);
+
+    days.setAll(summary.days);
+  }
+}
@@ -0,0 +1,142 @@
+// JavaFX binding and image classes
+import javafx.beans.binding.Bindings;       // Image binding that follows an icon path
+import javafx.beans.property.StringProperty; // Icon path held by a view model
+import javafx.scene.image.Image;     // Decoded icon handed out to ImageViews
+import javafx.scene.image.ImageView; // Views bound to a cached icon
+
+// Java utilities
+import java.io.ByteArrayInputStream; // Decodes icons from bytes already read
+import java.io.IOException;          // Resource read failures
+import java.io.InputStream;          // For reading resource files (images)
+import java.util.Iterator;           // For walking GIF readers
+import java.util.concurrent.ConcurrentHashMap; // Thread-safe icon map
+
+// Image metadata (frame counting for stats)
+import javax.imageio.ImageIO;                   // Finds a reader for the icon format
+import javax.imageio.ImageReader;               // Counts frames without keeping them
+import javax.imageio.stream.ImageInputStream;   // Input for the ImageReader
+
+/**
+ * Icon Image Cache
+ * Purpose: decodes every icon resource once per display size and shares the result
+ * Process:
+ * - First request for (path, width, height) reads the resource and decodes it already
+ *   scaled to that size, so a 40px card icon doesn't keep a full-size bitmap around
+ * - Later requests return the same Image instance; ImageViews can share one Image
+ * - Resource streams are always closed
+ * Location: Used by JavaFX whenever a scene shows an icon; safe to call from any thread
+ * Stats:
+ * - getDecodedBytes() estimates memory as width * height * 4 bytes * frame count
+ */
+public class IconCache {
+  private static final IconCache SHARED = new IconCache();
+
+  // one decoded icon and what it costs
+  private static class Entry {
+    final Image image;
+    final int frames;
+
+    Entry(Image image, int frames) {
+      this.image = image;
+      this.frames = frames;
+    }
+
+    long bytes() {
+      return (long) image.getWidth() * (long) image.getHeight() * 4L * frames;
+    }
+  }
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  public static IconCache getShared() {
+    return SHARED;
+  }
+
+  // the icon at path decoded at width x height, or null if the resource doesn't exist or can't be decoded
+  public Image get(String path, double width, double height) {
+    String key = path + "@" + width + "x" + height;
+    Entry e = entries.get(key);
+    if (e == null) {
+      Entry decoded = decode(path, width, height);
+      if (decoded == null) {
+        return null;
+      }
+      e = entries.putIfAbsent(key, decoded);
+      if (e == null) {
+        e = decoded;
+      }
+    }
+    return e.image;
+  }
+
+  // image view that shows the cached icon for whatever path the property holds
+  public ImageView createView(StringProperty iconPath, double size) {
+    ImageView icon = new ImageView();
+    icon.setFitHeight(size);
+    icon.setFitWidth(size);
+    icon.imageProperty().bind(Bindings.createObjectBinding(
+        () -> iconPath.get() == null ? null : get(iconPath.get(), size, size),
+        iconPath));
+    return icon;
+  }
+
+  // number of (icon, size) pairs decoded so far
+  public int size() {
+    return entries.size();
+  }
+
+  // rough memory held by decoded pixels, counting every GIF frame
+  public long getDecodedBytes() {
+    long total = 0;
+    for (Entry e : entries.values()) {
+      total += e.bytes();
+    }
+    return total;
+  }
+
+  // one line per cached icon, for logging
+  public String describe() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("icons: ").append(entries.size()).append(", decoded bytes: ").append(getDecodedBytes()).append('\n');
+    entries.forEach((key, e) -> sb.append("  ").append(key)
+        .append(" frames=").append(e.frames)
+        .append(" bytes=").append(e.bytes()).append('\n'));
+    return sb.toString();
+  }
+
+  private Entry decode(String path, double width, double height) {
+    byte[] bytes;
+    try (InputStream is = IconCache.class.getResourceAsStream(path)) {
+      if (is == null) {
+        return null;
+      }
+      bytes = is.readAllBytes();
+    } catch (IOException e) {
+      return null;
+    }
+    Image image = new Image(new ByteArrayInputStream(bytes), width, height, false, true);
+    if (image.isError()) {
+      return null;
+    }
+    return new Entry(image, countFrames(bytes));
+  }
+
+  // animated GIFs keep every frame decoded; other formats count as one frame
+  private static int countFrames(byte[] bytes) {
+    try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+      if (!readers.hasNext()) {
+        return 1;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(in);
+        return Math.max(1, reader.getNumImages(true));
+      } finally {
+        reader.dispose();
+      }
+    } catch (IOException | RuntimeException e) {
+      return 1;
+    }
+  }
+}
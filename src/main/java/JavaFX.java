@@ -1,15 +1,21 @@
 // JavaFX core imports for building the application
 import javafx.application.Application;  // Base class for JavaFX applications
+import javafx.application.Platform;     // Runs updates on the FX Application Thread
+
+// Property binding imports
+import javafx.beans.binding.Bindings;   // Builds text and image bindings
 
 // Layout management imports
 import javafx.geometry.Insets;    // Handles spacing around elements (padding/margins)
 import javafx.geometry.Pos;       // Controls alignment of elements in containers
 
 // UI component imports
+import javafx.scene.Parent;       // Root node of a scene
 import javafx.scene.Scene;        // Container for all visible content
 import javafx.scene.control.Button;  // Creates interactive buttons
 import javafx.scene.control.Label;   // Displays text labels
-import javafx.scene.control.ScrollPane;  // Makes content scrollable
+import javafx.scene.control.ListView;     // Scrollable strip of forecast cards
+import javafx.scene.control.ProgressIndicator; // Spinner while a forecast loads
 
 // Image handling for weather icons
 import javafx.scene.image.Image;     // Loads image files
@@ -18,6 +24,7 @@ import javafx.scene.image.ImageView; // Displays images in the UI
 // Layout container imports
 import javafx.scene.layout.BorderPane;  // Main layout dividing space into regions
 import javafx.scene.layout.HBox;        // Arranges elements horizontally
+import javafx.scene.layout.Priority;    // Lets the forecast list take the free height
 import javafx.scene.layout.VBox;        // Arranges elements vertically
 
 // Visual styling imports
@@ -33,22 +40,52 @@ import javafx.scene.text.TextAlignment; // For text alignment
 import javafx.stage.Stage;             // Main application window
 
 // Custom weather classes
-import weather.Period;                 // Weather period data structure
+import weather.DiskForecastCache;      // Last good forecast per city, saved between runs
+import weather.Forecast;               // Periods plus update times for one grid point
+import weather.ForecastCache;          // Keeps recently fetched forecasts per grid point
+import weather.ForecastClassifier;     // Maps forecast text to weather icons
+import weather.GridPoint;              // Region + grid coordinates of a city
+import weather.RefreshScheduler;       // Keeps every city's forecast fresh in the background
+import weather.StringDictionary;       // Shared copies of repeated forecast texts
+import weather.ForecastSummary;        // Texts and icons for the forecast screens
 import weather.WeatherAPI;             // Weather API interface
+import weather.WeatherClient;          // Shared HTTP client behind WeatherAPI
 
 // Java utilities
-import java.io.InputStream;            // For reading resource files (images)
-import java.util.ArrayList;            // For storing weather forecast periods
 import java.util.HashMap;              // For city data mapping
 import java.util.Map;                  // For city data interface
+import java.util.concurrent.CompletableFuture; // Forecast loads running in the background
+import java.util.concurrent.ExecutorService;   // Worker threads for preparing forecasts
+import java.util.concurrent.Executors;         // Creates the worker pool
 
 /**
  * Main JavaFX Application class
  * Extends Application to create the weather forecast GUI
  */
 public class JavaFX extends Application {
-  // Stores weather forecast data retrieved from API
-  private ArrayList<Period> forecast;
+  // Observable texts and icons the forecast screens are bound to
+  private final ForecastViewModel viewModel = new ForecastViewModel();
+
+  // Worker threads for turning forecasts into summaries. Building one is short CPU work and the
+  // fetch before it is already asynchronous, so nothing here blocks: two platform threads are
+  // enough, and virtual threads would add nothing
+  private static final ExecutorService BACKGROUND = Executors.newFixedThreadPool(2, r -> {
+    Thread t = new Thread(r, "forecast-loader");
+    t.setDaemon(true);
+    return t;
+  });
+
+  // Counts forecast loads so results for a city the user already left can be ignored (FX thread only)
+  private long loadGeneration = 0;
+  // The cache lookup of the load in progress, null when none is (FX thread only)
+  private CompletableFuture<?> pendingLoad;
+
+  // Application stylesheet; JavaFX loads the precompiled weather.bss beside it when the build made one
+  // (mvn -Pbss), otherwise it parses the .css
+  private static final String STYLESHEET = JavaFX.class.getResource("/styles/weather.css").toExternalForm();
+
+  // Refetches every city in cityData shortly before its cached forecast goes stale
+  private final RefreshScheduler refreshScheduler = new RefreshScheduler(ForecastCache.getShared());
 
   // Main window of the application
   private Stage primaryStage;
@@ -58,6 +95,8 @@ public class JavaFX extends Application {
   private Scene citySelectionScene;// City selection screen
   private Scene todayScene;        // Today's weather display
   private Scene forecastScene;     // 7-day forecast display
+  private Scene loadingScene;      // Shown while a forecast loads
+  private Label loadingLabel;      // Names the city being loaded
 
   // Maps city names to their API grid coordinates
   private Map<String, int[]> cityData = new HashMap<>();
@@ -69,47 +108,11 @@ public class JavaFX extends Application {
   private int currentGridY = 70;               // Grid Y coordinate
 
   // Weather image mapping
-  // map the icon based on the shortfoast returned from the API
-  // diffrent condition along with designated icons to show real time GIF
-  // it also has a conditions to change the icon if the condition is returned and checks if the time is night then show different GIF
-  // checks if isNight then show night theme GIf instead of day time
+  // map the icon based on the shortForecast returned from the API
+  // the keyword rules live in /weather/icon-rules.txt (day and night icon per condition)
+  // and are compiled once by ForecastClassifier, which also remembers every text it has seen
   private String getWeatherIconPath(String description, boolean isNight) {
-    String iconPath = "/icons/default.png";
-    description = description.toLowerCase();
-
-    description = description.toLowerCase();
-    if (description.contains("showers") && description.contains("thunderstorm")) {
-      iconPath = "/icons/thunder.gif";
-    } else if (description.contains("sunny") || description.contains("clear")) {
-      if (isNight) {
-        iconPath = "/icons/clearnight.gif"; // Use clear night icon instead of sunny for night
-      } else {
-        iconPath = "/icons/sunnysky.gif";
-      }
-    } else if (description.contains("Mostly Cloudy") || description.contains("cloud") || description.contains("partly")) {
-      if (isNight) {
-        iconPath = "/icons/mostlyclear.gif";
-      } else {
-        iconPath = "/icons/clouldysky.gif";
-      }
-    } else if (description.contains("rain") || description.contains("shower") ||
-        (description.contains("chance") && description.contains("rain"))) {
-      iconPath = "/icons/rain.gif";
-    } else if (description.contains("snow")) {
-      iconPath = "/icons/snow.gif";
-    } else if (description.contains("wind")) {
-      iconPath = "/icons/wind.gif";
-    } else if (description.contains("fog") || description.contains("patchy")) {
-      if (isNight) {
-        iconPath = "/icons/cloudy.gif";
-      } else {
-        iconPath = "/icons/clouldysky.gif";
-      }
-    } else if (description.contains("smoke")) {
-      iconPath = "/icons/foggy.gif";
-    }
-
-    return iconPath;
+    return ForecastClassifier.getDefault().iconPath(description, isNight);
   }
 
   //runs the applications
@@ -117,6 +120,14 @@ public class JavaFX extends Application {
     launch(args);
   }
 
+  // runs on the launcher thread before start(), so the JSON parser is warm
+  // by the time the first forecast arrives
+  @Override
+  public void init() {
+    WeatherAPI.warmUp();
+    ForecastCache.getShared().setDiskCache(DiskForecastCache.fromSystemProperties());
+  }
+
   //start the application and show the main welcome screen
   //creates different scene handles for all 4 scene and get data from the API
   //
@@ -130,13 +141,34 @@ public class JavaFX extends Application {
     setupCityData(); // add cities
     createWelcomeScene(); // make welcome page
     createCitySelectionScene(); // make city pick page
-    loadForecast(); // get forecast for default city
+    createTodayScene(); // make today's weather page, filled in once a forecast arrives
+    createForecastScene(); // make 7-day forecast page
+    createLoadingScene(); // make the loading page
+    // paint from the forecast saved on disk last time if there is one,
+    // and get the default city's forecast in the background
+    loadSavedForecast();
+    startBackgroundRefresh();
 
     // Set initial scene
     primaryStage.setScene(welcomeScene); // show welcome screen
     primaryStage.show();
   }
 
+  // when the window closes, release the shared HTTP client's connections and threads
+  @Override
+  public void stop() {
+    refreshScheduler.shutdown();
+    WeatherClient.shutdownShared();
+    // -Dweather.iconStats=true prints how much memory the decoded icons take
+    if (Boolean.getBoolean("weather.iconStats")) {
+      System.out.print(IconCache.getShared().describe());
+    }
+    // -Dweather.dictionaryStats=true prints how well repeated forecast texts were shared
+    if (Boolean.getBoolean("weather.dictionaryStats")) {
+      System.out.println(StringDictionary.getShared().describe());
+    }
+  }
+
   /**
    * City Data Configuration
    * Purpose: this adds city names and their grid data
@@ -157,53 +189,192 @@ public class JavaFX extends Application {
     cityData.put("Seattle, WA", new int[]{'S', 'E', 'W', 130, 67});
   }
 
+  // grid point of a city in cityData, or null if its entry is incomplete
+  private GridPoint gridPointFor(String cityName) {
+    int[] cityCoords = cityData.get(cityName);
+    if (cityCoords == null || cityCoords.length < 5) {
+      return null;
+    }
+    String region = String.valueOf((char)cityCoords[0]) +
+        String.valueOf((char)cityCoords[1]) +
+        String.valueOf((char)cityCoords[2]);
+    return new GridPoint(region, cityCoords[3], cityCoords[4]);
+  }
+
+  /**
+   * Background Refresh Setup
+   * Purpose: keeps every city's forecast in the cache so picking a city never waits on the network
+   * Process:
+   * - Registers each city of cityData with the refresh scheduler, which refetches it a little
+   *   (randomly) before the cached copy expires
+   * - Pauses refreshing while the window is minimized and catches up when it is restored
+   * - When the city on screen gets new data, the today and forecast screens are updated in place
+   * Location: Called from start() after the saved forecast is shown
+   */
+  private void startBackgroundRefresh() {
+    for (String cityName : cityData.keySet()) {
+      GridPoint point = gridPointFor(cityName);
+      if (point != null) {
+        refreshScheduler.add(point);
+      }
+    }
+    refreshScheduler.addListener((point, forecast) -> Platform.runLater(() -> {
+      boolean onScreen = point.equals(new GridPoint(currentRegion, currentGridX, currentGridY));
+      if (onScreen && pendingLoad == null) {
+        loadForecast(false); // a cache hit now; swaps the new texts into the bound screens
+      }
+    }));
+    primaryStage.iconifiedProperty().addListener((obs, wasIconified, iconified) -> {
+      if (iconified) {
+        refreshScheduler.pause();
+      } else {
+        refreshScheduler.resume();
+      }
+    });
+    refreshScheduler.start();
+  }
+
   /**
    * Forecast Loading Handler
-   * Purpose: this gets weather data and builds scenes
+   * Purpose: this gets weather data and builds scenes without freezing the window
    * Process:
-   * - Makes API call using current city's grid coordinates
-   * - Creates new scenes with updated forecast data
-   * - Handles errors with user-friendly error display
-   * Location: Called after city selection and during initial load
+   * - Fetches (or reads from the cache) the current city's forecast on a background thread
+   * - Turns the periods into a ForecastSummary on a worker thread
+   * - Puts the summary into the bound screens back on the FX thread
+   * - Results for a city the user already navigated away from are dropped
+   * Location: Called after city selection, at startup and for background refreshes
+   * Parameters:
+   * - showWhenReady: show a loading screen now and switch to today's weather when done;
+   *   when false the new data only replaces a forecast screen that is already showing
    * Error Handling:
    * - Shows error scene if API call fails
    * - Provides option to return to city selection
    */
-  private void loadForecast() {
-
-    // try to get forecast data from the API using current city info
-    try {
-      // get the following information from the API
-      forecast = WeatherAPI.getForecast(currentRegion, currentGridX, currentGridY);
+  private void loadForecast(boolean showWhenReady) {
+    abandonLoad(); // an older city's result is no longer wanted
+    long generation = loadGeneration;
+
+    String city = currentCity;
+    GridPoint point = new GridPoint(currentRegion, currentGridX, currentGridY);
+    if (showWhenReady) {
+      loadingLabel.setText("Loading forecast for " + city + "...");
+      primaryStage.setScene(loadingScene);
+    }
 
-      // if there is no forecast error message pop-ups
-      if (forecast == null) {
-        throw new RuntimeException("Forecast did not load");
+    // get the following information from the cache, or from the API if the cached copy is stale
+    // pendingLoad is the lookup itself: cancelling it also ends the summary step waiting on it,
+    // but not the cache's fetch, which other callers may share
+    CompletableFuture<Forecast> lookup = ForecastCache.getShared().get(point);
+    pendingLoad = lookup;
+    CompletableFuture<ForecastSummary> load = lookup
+        .thenApplyAsync(fresh -> ForecastSummary.build(city, fresh.periods, this::getWeatherIconPath), BACKGROUND);
+    load.whenComplete((summary, error) -> Platform.runLater(() -> {
+      if (pendingLoad == lookup) {
+        pendingLoad = null;
       }
+      if (generation != loadGeneration) {
+        return; // the user picked another city or went back in the meantime
+      }
+      if (error != null) {
+        error.printStackTrace();
+        if (showWhenReady) {
+          showErrorScene();
+        }
+        return;
+      }
+      showSummary(summary, showWhenReady);
+    }));
+  }
+
+  // stops waiting for the load in progress, if any: its result will be ignored and background
+  // refreshes of the city on screen may update it again. The HTTP request is not stopped;
+  // ForecastCache gives each caller its own copy of a shared fetch, so the fetch still finishes
+  // and fills the cache, and loadGeneration is what keeps its result off the screen (FX thread only)
+  private void abandonLoad() {
+    loadGeneration++;
+    if (pendingLoad != null) {
+      pendingLoad.cancel(true);
+      pendingLoad = null;
+    }
+  }
+
+  // puts a new forecast into the (already built) today and forecast scenes and shows the right one
+  private void showSummary(ForecastSummary summary, boolean showToday) {
+    boolean showingToday = primaryStage.getScene() == todayScene;
+    boolean showingForecast = primaryStage.getScene() == forecastScene;
+    SwitchProfiler profiler = SwitchProfiler.start();
 
-      // build the screens for today and 7-day forecast
-      createTodayScene();
-      createForecastScene();
-    } catch (Exception e) { // if something goes wrong, print the error
-      e.printStackTrace();
-      // Show error message if forecast fails to load just in case of no connection to API
-      Label errorLabel = new Label("Unable to load forecast data. Please try again.");
-      errorLabel.setFont(Font.font("Verdana", 16));
-      errorLabel.setTextFill(Color.RED);
-      // give user back button incase they can't see the data 
-      Button backButton = new Button("Back to City Selection");
-      backButton.setOnAction(event -> primaryStage.setScene(citySelectionScene));
-
-      // arrange error message and button vertically
-      VBox errorBox = new VBox(20, errorLabel, backButton);
-      errorBox.setAlignment(Pos.CENTER);
-      errorBox.setPadding(new Insets(50));
-      errorBox.setStyle("-fx-background-color: white;");
-
-      // create new scene to show the error
-      Scene errorScene = new Scene(errorBox, 1200, 700);
-      primaryStage.setScene(errorScene);
+    // update the bound values; the forecast list re-fills only the cells on screen
+    viewModel.apply(summary);
+
+    profiler.finish(todayScene, forecastScene);
+    if (showToday || showingToday) {
+      primaryStage.setScene(todayScene);
+    } else if (showingForecast) {
+      primaryStage.setScene(forecastScene);
+    }
+  }
+
+  // shown while a city's forecast is being fetched; built once, the label is updated per city
+  private void createLoadingScene() {
+    ProgressIndicator spinner = new ProgressIndicator();
+    spinner.setPrefSize(80, 80);
+
+    loadingLabel = new Label();
+    loadingLabel.setFont(Font.font("Verdana", 16));
+    loadingLabel.setTextFill(Color.WHITE);
+
+    // let the user go back without waiting for a slow connection
+    Button backButton = new Button("Back to City Selection");
+    backButton.setOnAction(event -> {
+      abandonLoad(); // whatever arrives now is ignored
+      primaryStage.setScene(citySelectionScene);
+    });
+
+    VBox loadingBox = new VBox(20, spinner, loadingLabel, backButton);
+    loadingBox.setAlignment(Pos.CENTER);
+    loadingBox.setPadding(new Insets(50));
+    loadingBox.getStyleClass().add("gradient-background");
+    loadingScene = newScene(loadingBox);
+  }
+
+  // Show error message if forecast fails to load just in case of no connection to API
+  private void showErrorScene() {
+    Label errorLabel = new Label("Unable to load forecast data. Please try again.");
+    errorLabel.setFont(Font.font("Verdana", 16));
+    errorLabel.setTextFill(Color.RED);
+    // give user back button incase they can't see the data 
+    Button backButton = new Button("Back to City Selection");
+    backButton.setOnAction(event -> primaryStage.setScene(citySelectionScene));
+
+    // arrange error message and button vertically
+    VBox errorBox = new VBox(20, errorLabel, backButton);
+    errorBox.setAlignment(Pos.CENTER);
+    errorBox.setPadding(new Insets(50));
+    errorBox.getStyleClass().add("error-page");
+
+    // create new scene to show the error
+    Scene errorScene = newScene(errorBox);
+    primaryStage.setScene(errorScene);
+  }
+
+  /**
+   * Saved Forecast Loader
+   * Purpose: shows the last forecast saved on disk right away at startup
+   * Process:
+   * - Looks up the default city in the forecast cache (which falls back to the disk cache)
+   * - Builds the today and forecast scenes from it
+   * - Starts a background refresh that swaps in the new data when it arrives
+   * Location: Called from start() before the window is shown
+   */
+  private void loadSavedForecast() {
+    GridPoint point = new GridPoint(currentRegion, currentGridX, currentGridY);
+    Forecast saved = ForecastCache.getShared().peek(point);
+    if (saved != null && saved.periods != null && saved.periods.size() >= 2) {
+      showSummary(ForecastSummary.build(currentCity, saved.periods, this::getWeatherIconPath), false);
     }
+    // the saved copy is always treated as stale, so this goes to the network
+    loadForecast(false);
   }
 
   /**
@@ -225,7 +396,7 @@ public class JavaFX extends Application {
     VBox welcomeContainer = new VBox(30);
     welcomeContainer.setAlignment(Pos.CENTER);
     welcomeContainer.setPadding(new Insets(40));
-    welcomeContainer.setStyle("-fx-background-color: linear-gradient(to bottom, #90caf9, #1a237e);");
+    welcomeContainer.getStyleClass().add("gradient-background");
 
 
     // App title
@@ -240,10 +411,8 @@ public class JavaFX extends Application {
 
     // Try to load and display weather icon
     try {
-      String iconPath = "/icons/logo.png";
-      InputStream is = getClass().getResourceAsStream(iconPath);
-      if (is != null) {
-        Image welcomeImage = new Image(is);
+      Image welcomeImage = IconCache.getShared().get("/icons/logo.png", 200, 200);
+      if (welcomeImage != null) {
         ImageView welcomeIcon = new ImageView(welcomeImage);
         welcomeIcon.setFitHeight(200);
         welcomeIcon.setFitWidth(200);
@@ -257,7 +426,7 @@ public class JavaFX extends Application {
     Button enterButton = new Button("Get Started");
     enterButton.setFont(Font.font("Verdana", FontWeight.BOLD, 16));
     enterButton.setPadding(new Insets(10, 30, 10, 30));
-    enterButton.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white;");
+    enterButton.getStyleClass().add("start-button");
     enterButton.setOnAction(e -> primaryStage.setScene(citySelectionScene));
 
     // Copyright info
@@ -269,7 +438,7 @@ public class JavaFX extends Application {
     welcomeContainer.getChildren().addAll(titleLabel, descriptionLabel, enterButton, copyrightLabel);
 
     // Create scene
-    welcomeScene = new Scene(welcomeContainer, 1200, 700);
+    welcomeScene = newScene(welcomeContainer);
   }
 
   /**
@@ -287,7 +456,7 @@ public class JavaFX extends Application {
   private void createCitySelectionScene() {
     // base layout for the whole screen
     BorderPane mainLayout = new BorderPane();
-    mainLayout.setStyle("-fx-background-color: linear-gradient(to bottom, #90caf9, #1a237e);");
+    mainLayout.getStyleClass().add("gradient-background");
 
 
     // create the title at the top
@@ -300,7 +469,7 @@ public class JavaFX extends Application {
     header.setAlignment(Pos.CENTER);
     header.setPadding(new Insets(15));
     header.getChildren().add(titleLabel);
-    header.setStyle("-fx-background-color: #2c3e50;");
+    header.getStyleClass().add("header-bar");
     mainLayout.setTop(header);
 
     // vertical box for everything in the middle
@@ -314,9 +483,8 @@ public class JavaFX extends Application {
 
     // try to show an animated city gif at the top
     try {
-      InputStream is = getClass().getResourceAsStream("/icons/city.gif");
-      if (is != null) {
-        Image cityGif = new Image(is);
+      Image cityGif = IconCache.getShared().get("/icons/city.gif", 150, 100);
+      if (cityGif != null) {
         ImageView cityIcon = new ImageView(cityGif);
         cityIcon.setFitHeight(100);
         cityIcon.setFitWidth(150);
@@ -336,28 +504,21 @@ public class JavaFX extends Application {
       Button cityButton = new Button(cityName);
       cityButton.setPrefWidth(250);
       cityButton.setPrefHeight(50);
-      cityButton.setStyle("-fx-background-color: #3498db; -fx-text-fill: white; -fx-font-size: 16px;");
-
-      // change style when mouse hovers over the button
-      cityButton.setOnMouseEntered(e ->
-          cityButton.setStyle("-fx-background-color: #2980b9; -fx-text-fill: white; -fx-font-size: 16px;"));
-      cityButton.setOnMouseExited(e ->
-          cityButton.setStyle("-fx-background-color: #3498db; -fx-text-fill: white; -fx-font-size: 16px;"));
+      // the stylesheet darkens the button while the mouse is over it (.city-button:hover)
+      cityButton.getStyleClass().add("city-button");
 
       // when user clicks a city, update city info and load weather
       cityButton.setOnAction(e -> {
-        currentCity = cityName;
-        int[] cityCoords = cityData.get(currentCity);
-        if (cityCoords.length >= 5) {
-          currentRegion = String.valueOf((char)cityCoords[0]) +
-              String.valueOf((char)cityCoords[1]) +
-              String.valueOf((char)cityCoords[2]);
-          currentGridX = cityCoords[3];
-          currentGridY = cityCoords[4];
+        GridPoint point = gridPointFor(cityName);
+        if (point != null) {
+          currentCity = cityName;
+          currentRegion = point.region;
+          currentGridX = point.gridX;
+          currentGridY = point.gridY;
         }
 
-        loadForecast(); // get new weather info
-        primaryStage.setScene(todayScene); // go to today's forecast scene
+        // the background refresh keeps this cached, so this normally shows today's forecast right away
+        loadForecast(true);
       });
 
       cityButtonsContainer.getChildren().add(cityButton); // add button to list
@@ -365,7 +526,7 @@ public class JavaFX extends Application {
 
     // back button to go to welcome screen
     Button backButton = new Button("Back to Welcome");
-    backButton.setStyle("-fx-background-color: #7f8c8d; -fx-text-fill: white;");
+    backButton.getStyleClass().add("back-button");
     backButton.setPadding(new Insets(10, 20, 10, 20));
     backButton.setOnAction(e -> primaryStage.setScene(welcomeScene));
 
@@ -378,26 +539,24 @@ public class JavaFX extends Application {
     mainLayout.setCenter(contentBox);
 
     // build the full scene
-    citySelectionScene = new Scene(mainLayout, 1200, 700);
+    citySelectionScene = newScene(mainLayout);
   }
 
   /**
    * Today's Weather Scene Creator
-   * Purpose:  this builds the screen where users choose a city
+   * Purpose:  this builds the screen with today's weather, once
    * Process:
    * - Creates layout with current conditions
    * - Shows temperature, description, and weather icon
    * - Displays day and night forecast cards
-   * Location: Called after forecast data is loaded
+   * - Labels and icons are bound to viewModel, so a new city only changes property values
+   * Location: Called once during application startup
    * Visual Elements:
    * - Weather icons based on conditions
    * - Temperature display with styling
    * - Navigation buttons to other scenes
    */
   private void createTodayScene() {
-    // base layout for the whole screen
-    Period today = forecast.get(0);
-
     // create the title at the top
     Label titleLabel = new Label("Weather Today");
     titleLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 24));
@@ -408,19 +567,19 @@ public class JavaFX extends Application {
     header.setAlignment(Pos.CENTER);
     header.setPadding(new Insets(15));
     header.getChildren().add(titleLabel);
-    header.setStyle("-fx-background-color: #2c3e50;");
+    header.getStyleClass().add("header-bar");
 
     // button to go to 7-day forecast scene
     Button forecastButton = new Button("7-Day Forecast");
     forecastButton.setOnAction(e -> primaryStage.setScene(forecastScene));
-    forecastButton.setStyle("-fx-background-color: #4287f5; -fx-text-fill: white;");
+    forecastButton.getStyleClass().add("nav-button");
     forecastButton.setPrefWidth(150);
     forecastButton.setPrefHeight(30);
 
     // button to go back to city selection scene
     Button cityButton = new Button("Change City");
     cityButton.setOnAction(e -> primaryStage.setScene(citySelectionScene));
-    cityButton.setStyle("-fx-background-color: #f54242; -fx-text-fill: white;");
+    cityButton.getStyleClass().addAll("nav-button", "change-city");
     cityButton.setPrefWidth(150);
     cityButton.setPrefHeight(30);
 
@@ -433,13 +592,15 @@ public class JavaFX extends Application {
 
 
     // add title and detailed forecast for current city
-    Label detailTitle = new Label("What to Expect Today in " + currentCity);
+    Label detailTitle = new Label();
+    detailTitle.textProperty().bind(Bindings.concat("What to Expect Today in ", viewModel.city));
     detailTitle.setFont(Font.font("Verdana", FontWeight.BOLD, 20));
     detailTitle.setTextFill(Color.WHITE);
     detailTitle.setAlignment(Pos.CENTER);
 
     // shows the full text forecast for the day
-    Label detailText = new Label(today.detailedForecast);
+    Label detailText = new Label();
+    detailText.textProperty().bind(viewModel.detailedForecast);
     detailText.setFont(Font.font("Verdana", 14));
     detailText.setTextFill(Color.WHITE);
     detailText.setWrapText(true);
@@ -458,52 +619,43 @@ public class JavaFX extends Application {
     weatherContainer.setPadding(new Insets(30));
 
     // Day forecast
-    Period dayPeriod = forecast.get(0); // today's daytime weather
+    ForecastViewModel.SectionModel dayPeriod = viewModel.today; // today's daytime weather
     VBox dayDisplay = new VBox(15);
     dayDisplay.setAlignment(Pos.CENTER);
     dayDisplay.setPadding(new Insets(20));
-    dayDisplay.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-background-radius: 15;");
+    dayDisplay.getStyleClass().add("period-panel");
     dayDisplay.setPrefWidth(400);
 
     // label for day time period name (like “Monday”)
-    Label dayLabel = new Label(dayPeriod.name+" ☀");
+    Label dayLabel = new Label();
+    dayLabel.textProperty().bind(Bindings.concat(dayPeriod.name, " ☀"));
     dayLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 20));
     dayLabel.setTextFill(Color.WHITE);
 
     // label showing temperature
-    Label dayTemp = new Label(dayPeriod.temperature + "°" + dayPeriod.temperatureUnit);
+    Label dayTemp = new Label();
+    dayTemp.textProperty().bind(dayPeriod.temperature);
     dayTemp.setFont(Font.font("Verdana", FontWeight.BOLD, 48));
     dayTemp.setTextFill(Color.WHITE);
 
     // short summary of the weather
-    Label dayDesc = new Label(dayPeriod.shortForecast);
+    Label dayDesc = new Label();
+    dayDesc.textProperty().bind(dayPeriod.description);
     dayDesc.setFont(Font.font("Verdana", 16));
     dayDesc.setTextFill(Color.WHITE);
     dayDesc.setWrapText(true);
     dayDesc.setTextAlignment(TextAlignment.CENTER);
 
-    // try to add a weather icon image for day time
-    try {
-      String iconPath = getWeatherIconPath(dayPeriod.shortForecast, false);
-      InputStream is = getClass().getResourceAsStream(iconPath);
-      if (is != null) {
-        Image weatherImage = new Image(is);
-        ImageView dayIcon = new ImageView(weatherImage);
-        dayIcon.setFitHeight(100);
-        dayIcon.setFitWidth(100);
-        dayDisplay.getChildren().addAll(dayLabel, dayIcon, dayTemp, dayDesc);
-      }
-    } catch (Exception e) {
-      // if icon can’t load, still show text info
-      dayDisplay.getChildren().addAll(dayLabel, dayTemp, dayDesc);
-    }
+    // weather icon for day time; stays empty if the icon can’t load
+    ImageView dayIcon = IconCache.getShared().createView(dayPeriod.iconPath, 100);
+    dayDisplay.getChildren().addAll(dayLabel, dayIcon, dayTemp, dayDesc);
 
     // Night forecast
-    Period nightPeriod = forecast.get(1); // tonight’s weather info
+    ForecastViewModel.SectionModel nightPeriod = viewModel.tonight; // tonight’s weather info
     VBox nightDisplay = new VBox(15);
     nightDisplay.setAlignment(Pos.CENTER);
     nightDisplay.setPadding(new Insets(20));
-    nightDisplay.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-background-radius: 15;");
+    nightDisplay.getStyleClass().add("period-panel");
     nightDisplay.setPrefWidth(400);
 
     // label for night section
@@ -512,32 +664,22 @@ public class JavaFX extends Application {
     nightLabel.setTextFill(Color.WHITE);
 
     // temperature at night
-    Label nightTemp = new Label(nightPeriod.temperature + "°" + nightPeriod.temperatureUnit);
+    Label nightTemp = new Label();
+    nightTemp.textProperty().bind(nightPeriod.temperature);
     nightTemp.setFont(Font.font("Verdana", FontWeight.BOLD, 48));
     nightTemp.setTextFill(Color.WHITE);
 
     // short weather description
-    Label nightDesc = new Label(nightPeriod.shortForecast);
+    Label nightDesc = new Label();
+    nightDesc.textProperty().bind(nightPeriod.description);
     nightDesc.setFont(Font.font("Verdana", 16));
     nightDesc.setTextFill(Color.WHITE);
     nightDesc.setWrapText(true);
     nightDesc.setTextAlignment(TextAlignment.CENTER);
 
-    // try to load weather icon for night
-    try {
-      String iconPath = getWeatherIconPath(nightPeriod.shortForecast, true);
-      InputStream is = getClass().getResourceAsStream(iconPath);
-      if (is != null) {
-        Image weatherImage = new Image(is);
-        ImageView nightIcon = new ImageView(weatherImage);
-        nightIcon.setFitHeight(100);
-        nightIcon.setFitWidth(100);
-        nightDisplay.getChildren().addAll(nightLabel, nightIcon, nightTemp, nightDesc);
-      }
-    } catch (Exception e) {
-      // if icon can’t load, still show text info
-      nightDisplay.getChildren().addAll(nightLabel, nightTemp, nightDesc);
-    }
+    // weather icon for night; stays empty if the icon can’t load
+    ImageView nightIcon = IconCache.getShared().createView(nightPeriod.iconPath, 100);
+    nightDisplay.getChildren().addAll(nightLabel, nightIcon, nightTemp, nightDesc);
 
     // thin line between day and night boxes
     Rectangle divider = new Rectangle(2, 300);
@@ -564,7 +706,8 @@ public class JavaFX extends Application {
     Label windLabel = new Label("Wind");
     windLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 14));
     windLabel.setTextFill(Color.WHITE);
-    Label windValue = new Label(today.windSpeed + " " + today.windDirection);
+    Label windValue = new Label();
+    windValue.textProperty().bind(viewModel.todayWind);
     windValue.setTextFill(Color.WHITE);
     windInfo.getChildren().addAll(windLabel, windValue);
 
@@ -574,11 +717,8 @@ public class JavaFX extends Application {
     Label precipLabel = new Label("Precipitation");
     precipLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 14));
     precipLabel.setTextFill(Color.WHITE);
-    int precipValue = 0;
-    if (today.probabilityOfPrecipitation != null && today.probabilityOfPrecipitation.value > 0) {
-      precipValue = today.probabilityOfPrecipitation.value;
-    }
-    Label precipValueLabel = new Label(precipValue + "%");
+    Label precipValueLabel = new Label();
+    precipValueLabel.textProperty().bind(viewModel.todayPrecipitation);
     precipValueLabel.setTextFill(Color.WHITE);
     precipInfo.getChildren().addAll(precipLabel, precipValueLabel);
 
@@ -598,18 +738,20 @@ public class JavaFX extends Application {
     mainLayout.setBottom(bottomNav); // navigation buttons at the bottom
 
     // Create scene with light blue background
-    todayScene = new Scene(mainLayout, 1200, 700);
-    mainLayout.setStyle("-fx-background-color: linear-gradient(to bottom, #90caf9, #1a237e);");
+    mainLayout.getStyleClass().add("gradient-background");
+    todayScene = newScene(mainLayout);
   }
 
   /**
    * 7-Day Forecast Scene Creator
-   * Purpose: Creates the scene for displaying the 7-day forecast
+   * Purpose: Creates the scene for displaying the 7-day forecast, once
    * Process:
-   * - Creates a scrollable horizontal layout to display forecast cards
+   * - Creates a scrollable horizontal list to display forecast cards
    * - Each card shows the day's weather information
    * - Uses images for weather icons
-   * Location: Called after forecast data is loaded
+   * - The list is virtualized: cells are built for the visible cards only and get
+   *   new days as the user scrolls (see ForecastCardCell)
+   * Location: Called once during application startup
    * Visual Elements:
    * - Scrollable horizontal layout for viewing forecast cards
    * - Cards with day/night information and weather icons
@@ -627,19 +769,19 @@ public class JavaFX extends Application {
     header.setAlignment(Pos.CENTER);
     header.setPadding(new Insets(15));
     header.getChildren().add(titleLabel);
-    header.setStyle("-fx-background-color: #2c3e50;");
+    header.getStyleClass().add("header-bar");
 
     // button to go to today's weather
     Button todayButton = new Button("Today's Weather");
     todayButton.setOnAction(e -> primaryStage.setScene(todayScene));
-    todayButton.setStyle("-fx-background-color: #4287f5; -fx-text-fill: white;");
+    todayButton.getStyleClass().add("nav-button");
     todayButton.setPrefWidth(150);
     todayButton.setPrefHeight(30);
 
     // button to go back to city selection
     Button cityButton = new Button("Change City");
     cityButton.setOnAction(e -> primaryStage.setScene(citySelectionScene));
-    cityButton.setStyle("-fx-background-color: #f54242; -fx-text-fill: white;");
+    cityButton.getStyleClass().addAll("nav-button", "change-city");
     cityButton.setPrefWidth(150);
     cityButton.setPrefHeight(30);
 
@@ -650,257 +792,15 @@ public class JavaFX extends Application {
     bottomNav.getChildren().addAll(cityButton, todayButton);
 
     // show the selected city above the forecast cards
-    Label locationLabel = new Label("For " + currentCity);
+    Label locationLabel = new Label();
+    locationLabel.textProperty().bind(Bindings.concat("For ", viewModel.city));
     locationLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 18));
     locationLabel.setPadding(new Insets(10, 0, 0, 0));
 
-    // scrollable area for forecast cards
-    ScrollPane scrollPane = new ScrollPane();
-    scrollPane.setStyle("-fx-background-color: transparent; -fx-background: transparent;");
-    scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-    scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-    scrollPane.setPannable(true);
-    scrollPane.setFitToHeight(true);
-
-    // horizontal container to hold forecast cards
-    HBox forecastContainer = new HBox(15);
-    forecastContainer.setAlignment(Pos.CENTER_LEFT);
-    forecastContainer.setPadding(new Insets(20));
-    forecastContainer.setSpacing(15);
-
-    // Process the forecast data to group by day
-    int day = 0;
-    int maxDays = 12;
-
-    // Process forecast periods properly matching day/night
-    int i = 0;
-
-    // go through forecast and build cards for day/night pairs
-    while (i < forecast.size() - 1 && day < maxDays) {
-      if (day >= maxDays) break;
-
-      // Get day and night periods if available
-      Period dayPeriod = (i < forecast.size()) ? forecast.get(i) : null;
-      Period nightPeriod = (i+1 < forecast.size()) ? forecast.get(i+1) : null;
-
-
-      if (dayPeriod.isDaytime && !nightPeriod.isDaytime) {
-
-        i += 2;
-        day++;
-      } else {
-        i++;
-      }
-
-      // Skip if no day period (shouldn't happen but just in case)
-      if (dayPeriod == null) continue;
-
-      // Skip if both are null (shouldn't happen)
-      if (dayPeriod == null && nightPeriod == null) continue;
-
-      // Create a card for this day
-      VBox card = new VBox(5);
-      card.setAlignment(Pos.CENTER);
-      card.setPadding(new Insets(15));
-      card.setStyle("-fx-background-image: url('/icons/cardback.png'); -fx-background-size: 100% 100%; -fx-background-repeat: no-repeat; -fx-background-radius: 10; -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.2), 10, 0, 0, 10);");
-      card.setPrefWidth(250);
-
-
-      String dayName;
-      if (i == 1) {
-        dayName = "Today";
-      } else {
-        dayName = dayPeriod != null ? dayPeriod.name :
-            (nightPeriod != null ? nightPeriod.name : "Unknown");
-      }
-
-      Label dateLabel = new Label(dayName);
-      dateLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 16));
-      dateLabel.setTextFill(Color.web("#ffffff"));
-      dateLabel.setAlignment(Pos.CENTER);
-      dateLabel.setPrefWidth(190);
-      dateLabel.setPadding(new Insets(5, 0, 10, 0));
-
-
-      card.getChildren().add(dateLabel);
-
-      // Day section
-      if (dayPeriod != null) {
-        VBox daySection = new VBox(5);
-        daySection.setAlignment(Pos.CENTER);
-        daySection.setPadding(new Insets(5));
-
-        Label dayTimeLabel = new Label("Day");
-        dayTimeLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 14));
-        dayTimeLabel.setTextFill(Color.web("#ffffff"));
-
-        // Day icon
-        ImageView dayIcon = new ImageView();
-        dayIcon.setFitHeight(40);
-        dayIcon.setFitWidth(40);
-        try {
-          String iconPath = getWeatherIconPath(dayPeriod.shortForecast, false); // Day period
-          InputStream is = getClass().getResourceAsStream(iconPath);
-          if (is != null) {
-            Image weatherImage = new Image(is);
-            dayIcon.setImage(weatherImage);
-          }
-        } catch (Exception e) {
-          // Fallback if image loading fails
-        }
-
-        // Day temperature - make sure it's visible
-        Label dayTempLabel = new Label(dayPeriod.temperature + "°" + dayPeriod.temperatureUnit);
-        dayTempLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 20));
-        dayTempLabel.setTextFill(Color.WHITE);
-        dayTempLabel.setAlignment(Pos.CENTER);
-        dayTempLabel.setMaxWidth(Double.MAX_VALUE);
-
-        // Day forecast - keep it concise and centered
-        Label dayDescLabel = new Label(dayPeriod.shortForecast);
-        dayDescLabel.setFont(Font.font("Verdana", 12));
-        dayDescLabel.setWrapText(true);
-        dayDescLabel.setMaxWidth(200);
-        dayDescLabel.setTextFill(Color.WHITE);
-        dayDescLabel.setAlignment(Pos.CENTER);
-        dayDescLabel.setMaxWidth(Double.MAX_VALUE);
-
-
-        // Day precipitation
-        String dayPrecipText = "Precip: ";
-        if (dayPeriod.probabilityOfPrecipitation != null && dayPeriod.probabilityOfPrecipitation.value > 0) {
-          dayPrecipText += dayPeriod.probabilityOfPrecipitation.value + "%";
-        } else {
-          dayPrecipText += "0%";
-        }
-        Label dayPrecipLabel = new Label(dayPrecipText);
-        dayPrecipLabel.setFont(Font.font("Verdana", 12));
-        dayPrecipLabel.setTextFill(Color.WHITE);
-        dayPrecipLabel.setAlignment(Pos.CENTER);
-        dayPrecipLabel.setMaxWidth(Double.MAX_VALUE);
-
-        // Day wind
-        Label dayWindLabel = new Label("Wind: " + dayPeriod.windSpeed);
-        dayWindLabel.setFont(Font.font("Verdana", 12));
-        dayWindLabel.setTextFill(Color.WHITE);
-        dayWindLabel.setWrapText(true);
-        dayWindLabel.setAlignment(Pos.CENTER);
-        dayWindLabel.setMaxWidth(Double.MAX_VALUE);
-
-        daySection.getChildren().addAll(dayTimeLabel, dayIcon, dayTempLabel, dayDescLabel, dayPrecipLabel, dayWindLabel);
-
-        // Add a background to make text more visible
-
-        card.getChildren().add(daySection);
-      }
-
-      // Simple separator line
-      if (dayPeriod != null && nightPeriod != null) {
-        HBox separator = new HBox();
-        separator.setPrefWidth(180);
-        separator.setPrefHeight(20);separator.setAlignment(Pos.CENTER);
-        separator.setPadding(new Insets(5, 0, 15, 0));
-
-        // Create simple line
-        Rectangle separatorLine = new Rectangle(180, 1);
-        separatorLine.setFill(Color.WHITE);
-        separator.setOpacity(0.5);
-
-        // Add separator to container
-        separator.getChildren().add(separatorLine);
-
-        // Insert separator after the date label
-        card.getChildren().add(1, separator);
-      }
-
-      // Night section
-      if (nightPeriod != null) {
-        VBox nightSection = new VBox(5);
-        nightSection.setAlignment(Pos.CENTER);
-        nightSection.setPadding(new Insets(5));
-
-        // Label for night sections - "Tonight" for first card, "Night" for others
-        Label nightTimeLabel = new Label(i == 0 ? "Tonight" : "Night");
-        nightTimeLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 14));
-        nightTimeLabel.setTextFill(Color.web("#ffffff"));
-
-        // Night icon
-        ImageView nightIcon = new ImageView();
-        nightIcon.setFitHeight(40);
-        nightIcon.setFitWidth(40);
-        try {
-          String iconPath = getWeatherIconPath(nightPeriod.shortForecast, true); // Night period
-          InputStream is = getClass().getResourceAsStream(iconPath);
-          if (is != null) {
-            Image weatherImage = new Image(is);
-            nightIcon.setImage(weatherImage);
-          }
-        } catch (Exception e) {
-          // Fallback if image loading fails
-        }
-
-        // Night temperature - make sure it's visible
-        Label nightTempLabel = new Label(nightPeriod.temperature + "°" + nightPeriod.temperatureUnit);
-        nightTempLabel.setFont(Font.font("Verdana", FontWeight.BOLD, 20));
-        nightTempLabel.setTextFill(Color.WHITE);
-        nightTempLabel.setAlignment(Pos.CENTER);
-        nightTempLabel.setMaxWidth(Double.MAX_VALUE);
-
-        // Night forecast - keep it concise and centered and adjust "Sunny" to "Clear"
-        String nightDescription = nightPeriod.shortForecast;
-        // Replace "Sunny" with "Clear" for night periods
-        if (nightDescription.toLowerCase().contains("sunny")) {
-          nightDescription = nightDescription.toLowerCase().replace("sunny", "clear skies");
-          // Capitalize first letter
-          nightDescription = nightDescription.substring(0, 1).toUpperCase() +
-              nightDescription.substring(1);        }
-        Label nightDescLabel = new Label(nightDescription);
-        nightDescLabel.setFont(Font.font("Verdana", 12));
-        nightDescLabel.setWrapText(true);
-        nightDescLabel.setMaxWidth(200);
-        nightDescLabel.setTextFill(Color.WHITE);
-        nightDescLabel.setAlignment(Pos.CENTER);
-        nightDescLabel.setMaxWidth(Double.MAX_VALUE);
-        nightDescLabel.setAlignment(Pos.CENTER);
-        nightDescLabel.setMaxWidth(Double.MAX_VALUE);
-
-        // Night precipitation
-        String nightPrecipText = "Precip: ";
-        if (nightPeriod.probabilityOfPrecipitation != null && nightPeriod.probabilityOfPrecipitation.value > 0) {
-          nightPrecipText += nightPeriod.probabilityOfPrecipitation.value + "%";
-        } else {
-          nightPrecipText += "0%";
-        }
-        Label nightPrecipLabel = new Label(nightPrecipText);
-        nightPrecipLabel.setFont(Font.font("Verdana", 12));
-        nightPrecipLabel.setTextFill(Color.WHITE);
-        nightPrecipLabel.setAlignment(Pos.CENTER);
-        nightPrecipLabel.setMaxWidth(Double.MAX_VALUE);
-
-        // Night wind
-        Label nightWindLabel = new Label("Wind: " + nightPeriod.windSpeed);
-        nightWindLabel.setFont(Font.font("Verdana", 12));
-        nightWindLabel.setTextFill(Color.WHITE);
-        nightWindLabel.setWrapText(true);
-        nightWindLabel.setAlignment(Pos.CENTER);
-        nightWindLabel.setMaxWidth(Double.MAX_VALUE);
-
-        nightSection.getChildren().addAll(nightTimeLabel, nightIcon, nightTempLabel, nightDescLabel, nightPrecipLabel, nightWindLabel);
-
-        // Add a horizontal separator line
-        Rectangle separator = new Rectangle(180, 1);
-        separator.setFill(Color.WHITE);
-        separator.setOpacity(0.5);
-
-        // Add the separator and night section
-        card.getChildren().addAll(separator, nightSection);
-      }
-
-      forecastContainer.getChildren().add(card);
-      day++;
-    }
-
-    scrollPane.setContent(forecastContainer);
+    // horizontal, virtualized list of forecast cards: only the cards on screen exist as nodes,
+    // and they are recycled for other days while scrolling
+    ListView<ForecastSummary.DayCard> forecastList = ForecastCardCell.createStrip(viewModel.days);
+    VBox.setVgrow(forecastList, Priority.ALWAYS);
 
 
 
@@ -910,14 +810,21 @@ public class JavaFX extends Application {
 
     VBox centerContent = new VBox(10);
     centerContent.setAlignment(Pos.CENTER);
-    centerContent.getChildren().addAll(locationLabel, scrollPane);
+    centerContent.getChildren().addAll(locationLabel, forecastList);
     centerContent.setPadding(new Insets(10));
     mainLayout.setCenter(centerContent);
     mainLayout.setBottom(bottomNav);
 
     // Create scene with light gradient background
-    forecastScene = new Scene(mainLayout, 1200, 700);
-    mainLayout.setStyle("-fx-background-color: linear-gradient(to bottom, #90caf9, #1a237e);");
+    mainLayout.getStyleClass().add("gradient-background");
+    forecastScene = newScene(mainLayout);
+
+  }
 
+  // every screen is the same size and shares the one parsed stylesheet
+  private Scene newScene(Parent root) {
+    Scene scene = new Scene(root, 1200, 700);
+    scene.getStylesheets().add(STYLESHEET);
+    return scene;
   }
 }
@@ -0,0 +1,62 @@
+// JavaFX scene import
+import javafx.scene.Scene;             // Scenes whose CSS and layout are timed
+
+// Java management imports
+import java.lang.management.ManagementFactory; // Access to the thread MXBean
+
+/**
+ * City Switch Profiler
+ * Purpose: measures what a city switch costs on the FX thread
+ * Process:
+ * - start() notes the time and the bytes this thread has allocated so far
+ * - finish() forces CSS and layout of the given scenes, then prints elapsed time
+ *   and allocated bytes since start()
+ * Location: Wrapped around the view update in JavaFX.showSummary()
+ * Enabled with -Dweather.profileSwitch=true; otherwise start() returns a no-op profiler
+ */
+public class SwitchProfiler {
+  private static final boolean ENABLED = Boolean.getBoolean("weather.profileSwitch");
+  private static final SwitchProfiler DISABLED = new SwitchProfiler(0, 0);
+
+  private final long startNanos;
+  private final long startBytes;
+
+  private SwitchProfiler(long startNanos, long startBytes) {
+    this.startNanos = startNanos;
+    this.startBytes = startBytes;
+  }
+
+  public static SwitchProfiler start() {
+    if (!ENABLED) {
+      return DISABLED;
+    }
+    return new SwitchProfiler(System.nanoTime(), allocatedBytes());
+  }
+
+  // lays out the scenes (as the next pulse would) and prints the cost of the whole switch
+  public void finish(Scene... scenes) {
+    if (this == DISABLED) {
+      return;
+    }
+    long updated = System.nanoTime();
+    for (Scene scene : scenes) {
+      if (scene != null) {
+        scene.getRoot().applyCss();
+        scene.getRoot().layout();
+      }
+    }
+    long done = System.nanoTime();
+    long bytes = allocatedBytes() - startBytes;
+    System.out.printf("city switch: update %.2f ms, css+layout %.2f ms, allocated %d KB%n",
+        (updated - startNanos) / 1e6, (done - updated) / 1e6, bytes / 1024);
+  }
+
+  // bytes allocated by the current thread, or 0 if the JVM can't tell
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+    }
+    return 0;
+  }
+}
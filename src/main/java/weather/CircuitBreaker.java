@@ -0,0 +1,241 @@
+package weather;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops sending requests to the API while most of them fail, so an outage
+ * costs callers nothing but a quick error (ForecastCache answers with its
+ * stale copy) and the API gets room to recover.
+ *
+ * CLOSED: requests go out; outcomes are counted in one-second buckets over
+ * the last windowSeconds. Once at least minRequests were seen and the share
+ * of failures reaches failureRate, the breaker opens.
+ * OPEN: every request is refused until openMillis have passed.
+ * HALF_OPEN: one probe request is let through. If it succeeds the breaker
+ * closes with a clean window, if it fails it opens again.
+ *
+ * allowRequest hands out a Permit that the caller passes back with the
+ * outcome. Only the probe's permit can close or reopen a half-open breaker;
+ * the late outcome of a request let through while it was still closed is
+ * counted, but cannot end the probe.
+ *
+ * Each bucket packs its second and its two counters into one long, so
+ * recording an outcome is a compare-and-set on a slot picked by the clock;
+ * the state is an AtomicReference. Nothing takes a lock.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // what a refused request fails with; not an IOException, so it is never retried
+    public static class OpenException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public OpenException(String message) {
+            super(message);
+        }
+    }
+
+    // proof that allowRequest let a request through; give it back to record or abandon
+    public static final class Permit {
+        private final boolean probe;
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+    }
+
+    private static final Permit CLOSED_PERMIT = new Permit(false);
+
+    // bucket layout: second (32 bits) | failures (16 bits) | total (16 bits)
+    private static final long COUNT_MASK = 0xFFFF;
+
+    private final double failureRate;
+    private final int minRequests;
+    private final int windowSeconds;
+    private final long openMillis;
+    private final LongSupplier clock;       // System.currentTimeMillis, or a test's
+    private final AtomicLongArray buckets;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicReference<Permit> probe = new AtomicReference<>(); // the probe in flight, if any
+
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public CircuitBreaker(double failureRate, int minRequests, int windowSeconds, long openMillis) {
+        this(failureRate, minRequests, windowSeconds, openMillis, System::currentTimeMillis);
+    }
+
+    // clock gives the time in millis
+    CircuitBreaker(double failureRate, int minRequests, int windowSeconds, long openMillis, LongSupplier clock) {
+        if (windowSeconds < 1 || minRequests < 1) {
+            throw new IllegalArgumentException("Window and minimum request count must be positive");
+        }
+        this.failureRate = failureRate;
+        this.minRequests = minRequests;
+        this.windowSeconds = windowSeconds;
+        this.openMillis = openMillis;
+        this.clock = clock;
+        this.buckets = new AtomicLongArray(windowSeconds);
+    }
+
+    // the breaker configured by -Dweather.breaker.failureRate (default 0.5), .minRequests (10),
+    // .windowSeconds (30) and .openMs (30000)
+    public static CircuitBreaker fromSystemProperties() {
+        return new CircuitBreaker(
+                Double.parseDouble(System.getProperty("weather.breaker.failureRate", "0.5")),
+                Integer.getInteger("weather.breaker.minRequests", 10),
+                Integer.getInteger("weather.breaker.windowSeconds", 30),
+                Long.getLong("weather.breaker.openMs", 30000));
+    }
+
+    // a permit if a request may go out now, else null; in HALF_OPEN only the first caller gets one
+    public Permit allowRequest() {
+        State s = state.get();
+        if (s == State.CLOSED) {
+            return CLOSED_PERMIT;
+        }
+        if (s == State.OPEN && clock.getAsLong() - openedAt.get() >= openMillis) {
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            s = state.get();
+        }
+        if (s == State.HALF_OPEN) {
+            Permit p = new Permit(true);
+            if (probe.compareAndSet(null, p)) {
+                return p;
+            }
+        }
+        refused.increment();
+        return null;
+    }
+
+    // outcome of the request allowRequest() gave the permit to
+    public void record(Permit permit, boolean success) {
+        if (permit.probe) {
+            if (probe.get() != permit) {
+                return; // a probe given up on with abandon; another one has taken over
+            }
+            if (success) {
+                clearWindow();
+                state.set(State.CLOSED);
+            } else {
+                open();
+            }
+            probe.compareAndSet(permit, null);
+            return;
+        }
+        State s = state.get();
+        long second = TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong());
+        add(second, success);
+        if (s == State.CLOSED && !success) {
+            long[] counts = counts(second);
+            long total = counts[0];
+            long failures = counts[1];
+            if (total >= minRequests && failures >= failureRate * total) {
+                if (state.compareAndSet(State.CLOSED, State.OPEN)) {
+                    openedAt.set(clock.getAsLong());
+                    opened.increment();
+                }
+            }
+        }
+    }
+
+    // the request allowRequest() gave the permit to ended without an outcome (cancelled)
+    public void abandon(Permit permit) {
+        if (permit.probe) {
+            probe.compareAndSet(permit, null); // let the next request probe instead
+        }
+    }
+
+    public State getState() {
+        State s = state.get();
+        if (s == State.OPEN && clock.getAsLong() - openedAt.get() >= openMillis) {
+            return State.HALF_OPEN; // the next request will be the probe
+        }
+        return s;
+    }
+
+    // share of failed requests in the current window, 0 if there were none
+    public double getFailureRate() {
+        long[] counts = counts(TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong()));
+        return counts[0] == 0 ? 0 : (double) counts[1] / counts[0];
+    }
+
+    // requests in the current window
+    public long getWindowRequests() {
+        return counts(TimeUnit.MILLISECONDS.toSeconds(clock.getAsLong()))[0];
+    }
+
+    // requests failed fast because the breaker was open
+    public long getRefused() {
+        return refused.sum();
+    }
+
+    // times the breaker has opened
+    public long getOpened() {
+        return opened.sum();
+    }
+
+    // one line of stats, for logging
+    public String describe() {
+        return String.format("circuit breaker: %s, failure rate %.0f%% of %d, opened %d times, %d refused",
+                getState(), getFailureRate() * 100, getWindowRequests(), getOpened(), getRefused());
+    }
+
+    private void open() {
+        openedAt.set(clock.getAsLong());
+        state.set(State.OPEN);
+        opened.increment();
+    }
+
+    private void add(long second, boolean success) {
+        int slot = (int) (second % windowSeconds);
+        while (true) {
+            long old = buckets.get(slot);
+            long total = 0;
+            long failures = 0;
+            if ((old >>> 32) == (second & 0xFFFFFFFFL)) {
+                total = old & COUNT_MASK;
+                failures = (old >>> 16) & COUNT_MASK;
+            }
+            if (total == COUNT_MASK) {
+                return; // 65535 requests in one second; the rate is known well enough
+            }
+            total++;
+            if (!success) {
+                failures++;
+            }
+            long updated = ((second & 0xFFFFFFFFL) << 32) | (failures << 16) | total;
+            if (buckets.compareAndSet(slot, old, updated)) {
+                return;
+            }
+        }
+    }
+
+    // {total, failures} over the buckets still inside the window ending at second
+    private long[] counts(long second) {
+        long total = 0;
+        long failures = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            long b = buckets.get(i);
+            long bucketSecond = b >>> 32;
+            long age = (second & 0xFFFFFFFFL) - bucketSecond;
+            if (b != 0 && age >= 0 && age < windowSeconds) {
+                total += b & COUNT_MASK;
+                failures += (b >>> 16) & COUNT_MASK;
+            }
+        }
+        return new long[] {total, failures};
+    }
+
+    private void clearWindow() {
+        for (int i = 0; i < windowSeconds; i++) {
+            buckets.set(i, 0);
+        }
+    }
+}
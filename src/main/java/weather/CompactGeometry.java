@@ -0,0 +1,90 @@
+package weather;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Polygon geometry stored as flat primitive arrays instead of
+ * ArrayList<ArrayList<ArrayList<Double>>>.
+ * Point i of the polygon is (coords[2*i], coords[2*i+1]) = (longitude, latitude).
+ * Ring r covers points ringOffsets[r] until ringOffsets[r+1]; ring 0 is the outer ring.
+ */
+@JsonDeserialize(using = CompactGeometryDeserializer.class)
+public class CompactGeometry {
+    public final String type;
+    private final double[] coords;
+    private final int[] ringOffsets;
+
+    public CompactGeometry(String type, double[] coords, int[] ringOffsets) {
+        this.type = type;
+        this.coords = coords;
+        this.ringOffsets = ringOffsets;
+    }
+
+    public int ringCount() {
+        return ringOffsets.length - 1;
+    }
+
+    public int pointCount() {
+        return coords.length / 2;
+    }
+
+    public int ringStart(int ring) {
+        return ringOffsets[ring];
+    }
+
+    public int ringEnd(int ring) {
+        return ringOffsets[ring + 1];
+    }
+
+    public double x(int point) {
+        return coords[2 * point];
+    }
+
+    public double y(int point) {
+        return coords[2 * point + 1];
+    }
+
+    // {minX, minY, maxX, maxY}, or null for an empty geometry
+    public double[] boundingBox() {
+        if (coords.length == 0) {
+            return null;
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < coords.length; i += 2) {
+            minX = Math.min(minX, coords[i]);
+            maxX = Math.max(maxX, coords[i]);
+            minY = Math.min(minY, coords[i + 1]);
+            maxY = Math.max(maxY, coords[i + 1]);
+        }
+        return new double[]{minX, minY, maxX, maxY};
+    }
+
+    // area centroid {x, y} of the outer ring; falls back to the vertex average
+    // when the ring has no area (degenerate or fewer than 3 points)
+    public double[] centroid() {
+        if (ringCount() == 0 || ringEnd(0) == ringStart(0)) {
+            return null;
+        }
+        int start = ringStart(0);
+        int end = ringEnd(0);
+        double area2 = 0, cx = 0, cy = 0;
+        for (int i = start; i < end; i++) {
+            int j = (i + 1 < end) ? i + 1 : start;
+            double cross = x(i) * y(j) - x(j) * y(i);
+            area2 += cross;
+            cx += (x(i) + x(j)) * cross;
+            cy += (y(i) + y(j)) * cross;
+        }
+        if (area2 == 0) {
+            double sx = 0, sy = 0;
+            for (int i = start; i < end; i++) {
+                sx += x(i);
+                sy += y(i);
+            }
+            int n = end - start;
+            return new double[]{sx / n, sy / n};
+        }
+        return new double[]{cx / (3 * area2), cy / (3 * area2)};
+    }
+}
@@ -0,0 +1,93 @@
+package weather;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Fills a CompactGeometry straight from the token stream; no boxed Doubles
+ * or nested lists are created on the way.
+ * Expects a GeoJSON Polygon object: {"type": ..., "coordinates": [[[x, y], ...], ...]}.
+ * Any other type, or coordinates nested deeper or shallower (a MultiPolygon,
+ * a Point), fails with an IOException naming what was found.
+ */
+public class CompactGeometryDeserializer extends StdDeserializer<CompactGeometry> {
+    private static final long serialVersionUID = 1L;
+
+    public CompactGeometryDeserializer() {
+        super(CompactGeometry.class);
+    }
+
+    @Override
+    public CompactGeometry deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.START_OBJECT) {
+            p.nextToken();
+        }
+        String type = null;
+        double[] coords = new double[64];
+        int coordCount = 0;
+        int[] offsets = new int[]{0, 0, 0, 0};
+        int rings = 0;
+        for (; p.currentToken() == JsonToken.FIELD_NAME; p.nextToken()) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            if ("type".equals(field)) {
+                type = p.getValueAsString();
+            } else if ("coordinates".equals(field) && value == JsonToken.START_ARRAY) {
+                // rings
+                while (p.nextToken() == JsonToken.START_ARRAY) {
+                    // points
+                    while (p.nextToken() == JsonToken.START_ARRAY) {
+                        double x = ordinate(p);
+                        double y = ordinate(p);
+                        // ignore altitude or any other extra ordinates
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            p.skipChildren();
+                        }
+                        if (coordCount + 2 > coords.length) {
+                            coords = Arrays.copyOf(coords, coords.length * 2);
+                        }
+                        coords[coordCount++] = x;
+                        coords[coordCount++] = y;
+                    }
+                    expectEndOfArray(p, "a point");
+                    rings++;
+                    if (rings + 1 > offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    offsets[rings] = coordCount / 2;
+                }
+                expectEndOfArray(p, "a ring");
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (type != null && !type.equals("Polygon")) {
+            throw new IOException("Unsupported geometry type " + type + ", only Polygon is read at " + p.getCurrentLocation());
+        }
+        return new CompactGeometry(type, Arrays.copyOf(coords, coordCount), Arrays.copyOf(offsets, rings + 1));
+    }
+
+    // the next number of a point; an array here means one nesting level too many, e.g. a MultiPolygon
+    private static double ordinate(JsonParser p) throws IOException {
+        JsonToken t = p.nextToken();
+        if (t == JsonToken.START_ARRAY) {
+            throw new IOException("Coordinates nested too deeply for a Polygon (MultiPolygon?) at " + p.getCurrentLocation());
+        }
+        if (t != JsonToken.VALUE_NUMBER_FLOAT && t != JsonToken.VALUE_NUMBER_INT) {
+            throw new IOException("Expected a coordinate but found " + t + " at " + p.getCurrentLocation());
+        }
+        return p.getDoubleValue();
+    }
+
+    // after a list of rings or points, anything but its end means the coordinates are not nested deeply enough
+    private static void expectEndOfArray(JsonParser p, String expected) throws IOException {
+        if (p.currentToken() != JsonToken.END_ARRAY) {
+            throw new IOException("Expected " + expected + " but found " + p.currentToken() + " at " + p.getCurrentLocation());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package weather;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Undoes the Content-Encoding of a response body as it is read. HttpClient
+ * neither asks for compressed responses nor decompresses them, so requests
+ * carry ACCEPT_ENCODING and the body stream goes through decode() on its
+ * way into the parser: nothing is buffered beyond the inflater's window,
+ * and no decompressed copy of the document is ever built.
+ *
+ * Supports gzip and deflate (zlib-wrapped, or raw as some servers send it).
+ * Brotli is not offered: the JDK has no decoder for it, and the one Java
+ * decoder, org.brotli:dec, would be a new dependency whose last release
+ * (0.1.2) dates from 2017. gzip already takes /forecast from about 13 KB to
+ * 1.5 KB, so Brotli could save a few hundred bytes per response at most.
+ *
+ * Counts the bytes that came over the wire and the bytes the parser got.
+ * The counts are added as the body is read, so a response that is still
+ * being parsed is partly included.
+ */
+public class ContentDecoder {
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;   // GZIPInputStream's default of 512 costs a native call per half KB
+
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder identityResponses = new LongAdder();
+
+    // the response body, decompressed according to its Content-Encoding header
+    public InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        return decode(response.body(), response.headers());
+    }
+
+    public InputStream decode(InputStream body, HttpHeaders headers) throws IOException {
+        return decode(body, headers.firstValue("Content-Encoding").orElse("identity"));
+    }
+
+    public InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        InputStream wire = new CountingInputStream(body, wireBytes);
+        InputStream decoded;
+        switch (encoding) {
+            case "":
+            case "identity":
+                identityResponses.increment();
+                return new CountingInputStream(wire, decodedBytes);
+            case "gzip":
+            case "x-gzip":
+                decoded = new GZIPInputStream(wire, BUFFER_SIZE);
+                break;
+            case "deflate":
+                decoded = inflate(wire);
+                break;
+            default:
+                wire.close();
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+        compressedResponses.increment();
+        return new CountingInputStream(decoded, decodedBytes);
+    }
+
+    // "deflate" is meant to be zlib-wrapped, but raw deflate streams are common enough to accept
+    private static InputStream inflate(InputStream wire) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(wire, 2);
+        int cmf = in.read();
+        int flg = in.read();
+        if (flg >= 0) {
+            in.unread(flg);
+        }
+        if (cmf >= 0) {
+            in.unread(cmf);
+        }
+        boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    inflater.end(); // a caller-supplied Inflater is not ended by InflaterInputStream
+                }
+                super.close();
+            }
+        };
+    }
+
+    // bytes received, compressed or not
+    public long getWireBytes() {
+        return wireBytes.sum();
+    }
+
+    // bytes handed to the parser after decompression
+    public long getDecodedBytes() {
+        return decodedBytes.sum();
+    }
+
+    public long getCompressedResponses() {
+        return compressedResponses.sum();
+    }
+
+    public long getIdentityResponses() {
+        return identityResponses.sum();
+    }
+
+    // decoded bytes per wire byte, 1 if nothing was read yet
+    public double getCompressionRatio() {
+        long wire = getWireBytes();
+        return wire == 0 ? 1 : (double) getDecodedBytes() / wire;
+    }
+
+    // one line of stats, for logging
+    public String describe() {
+        return String.format("content: %d KB on the wire, %d KB decoded (%.1fx), %d compressed and %d plain responses",
+                getWireBytes() / 1024, getDecodedBytes() / 1024, getCompressionRatio(),
+                getCompressedResponses(), getIdentityResponses());
+    }
+
+    // adds every byte read through it to a counter
+    private static final class CountingInputStream extends FilterInputStream {
+        private final LongAdder counter;
+
+        CountingInputStream(InputStream in, LongAdder counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = in.read(buffer, offset, length);
+            if (n > 0) {
+                counter.add(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            if (skipped > 0) {
+                counter.add(skipped);
+            }
+            return skipped;
+        }
+    }
+}
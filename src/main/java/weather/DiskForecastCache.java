@@ -0,0 +1,238 @@
+package weather;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the last good forecast per grid point on disk so the app can paint
+ * something before the network answers.
+ *
+ * File layout (big endian):
+ *   int   magic 'WXFC'
+ *   short format version
+ *   int   payload length
+ *   long  CRC32 of the payload
+ *   ...   payload: grid point, timestamps and periods written with DataOutputStream
+ * A file with the wrong magic, an older/newer version, a bad length or a
+ * checksum mismatch is treated as missing.
+ *
+ * saveAsync() writes on a thread of its own, not on the caller's executor:
+ * file I/O blocks, and the common pool is where forecasts get parsed. If a
+ * point is saved again before its last write started, only the newer
+ * forecast is written.
+ */
+public class DiskForecastCache {
+    static final int MAGIC = 0x57584643; // "WXFC"
+    static final short VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 2 + 4 + 8;
+    private static final int MAX_PAYLOAD = 4 * 1024 * 1024;
+
+    private final Path directory;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(WeatherClient.daemonThreads("forecast-disk"));
+    private final ConcurrentHashMap<GridPoint, Forecast> pending = new ConcurrentHashMap<>();
+
+    public DiskForecastCache(Path directory) {
+        this.directory = directory;
+    }
+
+    // uses -Dweather.cacheDir, defaulting to ~/.weather-forecast-cache
+    public static DiskForecastCache fromSystemProperties() {
+        String dir = System.getProperty("weather.cacheDir",
+                Paths.get(System.getProperty("user.home"), ".weather-forecast-cache").toString());
+        return new DiskForecastCache(Paths.get(dir));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // queues the forecast for the writer thread and returns at once
+    public void saveAsync(GridPoint point, Forecast forecast) {
+        if (pending.put(point, forecast) == null) {
+            writer.execute(() -> save(point, pending.remove(point)));
+        }
+    }
+
+    // writes to a temp file first and moves it into place so readers never see half a file.
+    // blocks on disk I/O, see saveAsync()
+    public void save(GridPoint point, Forecast forecast) {
+        Path tmp = null;
+        try {
+            byte[] payload = encode(point, forecast);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + payload.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(payload.length);
+            out.writeLong(crc.getValue());
+            out.write(payload);
+            out.flush();
+
+            Files.createDirectories(directory);
+            Path target = fileFor(point);
+            tmp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            deleteQuietly(tmp); // a failed write or move would otherwise leave it behind for good
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // the stored forecast, or null if there is none or the file is corrupt or from another format version.
+    // the returned forecast has expiresAt = 0, i.e. it is always considered stale
+    public Forecast load(GridPoint point) {
+        Path file = fileFor(point);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length < HEADER_SIZE) {
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return null;
+            }
+            int length = in.readInt();
+            long checksum = in.readLong();
+            if (length < 0 || length > MAX_PAYLOAD || length != bytes.length - HEADER_SIZE) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, HEADER_SIZE, length);
+            if (crc.getValue() != checksum) {
+                return null;
+            }
+            return decode(point, in);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void delete(GridPoint point) {
+        try {
+            Files.deleteIfExists(fileFor(point));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    Path fileFor(GridPoint point) {
+        return directory.resolve(point.region + "_" + point.gridX + "_" + point.gridY + ".wxfc");
+    }
+
+    private static byte[] encode(GridPoint point, Forecast forecast) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(point.region);
+        out.writeInt(point.gridX);
+        out.writeInt(point.gridY);
+        out.writeLong(forecast.generatedAt);
+        out.writeLong(forecast.updateTime);
+        out.writeInt(forecast.periods.size());
+        for (Period p : forecast.periods) {
+            out.writeInt(p.number);
+            writeString(out, p.name);
+            out.writeLong(p.startTimeMillis);
+            out.writeShort(p.startOffsetMinutes);
+            out.writeLong(p.endTimeMillis);
+            out.writeShort(p.endOffsetMinutes);
+            out.writeBoolean(p.isDaytime);
+            out.writeInt(p.temperature);
+            writeString(out, p.temperatureUnit);
+            writeString(out, p.temperatureTrend);
+            out.writeBoolean(p.probabilityOfPrecipitation != null);
+            if (p.probabilityOfPrecipitation != null) {
+                writeString(out, p.probabilityOfPrecipitation.unitCode);
+                out.writeInt(p.probabilityOfPrecipitation.value);
+            }
+            writeString(out, p.windSpeed);
+            writeString(out, p.windDirection);
+            writeString(out, p.icon);
+            writeString(out, p.shortForecast);
+            writeString(out, p.detailedForecast);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Forecast decode(GridPoint point, DataInputStream in) throws IOException {
+        String region = in.readUTF();
+        int gridX = in.readInt();
+        int gridY = in.readInt();
+        if (!point.equals(new GridPoint(region, gridX, gridY))) {
+            return null;
+        }
+        Forecast forecast = new Forecast();
+        forecast.generatedAt = in.readLong();
+        forecast.updateTime = in.readLong();
+        forecast.expiresAt = 0;
+        int count = in.readInt();
+        if (count < 0 || count > 10_000) {
+            return null;
+        }
+        forecast.periods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Period p = new Period();
+            p.number = in.readInt();
+            p.setName(readString(in));
+            p.setStartTime(in.readLong(), in.readShort());
+            p.setEndTime(in.readLong(), in.readShort());
+            p.isDaytime = in.readBoolean();
+            p.temperature = in.readInt();
+            p.setTemperatureUnit(readString(in));
+            p.setTemperatureTrend(readString(in));
+            if (in.readBoolean()) {
+                p.probabilityOfPrecipitation = new ProbabilityOfPrecipitation();
+                p.probabilityOfPrecipitation.setUnitCode(readString(in));
+                p.probabilityOfPrecipitation.value = in.readInt();
+            }
+            p.setWindSpeed(readString(in));
+            p.setWindDirection(readString(in));
+            p.setIcon(readString(in));
+            p.setShortForecast(readString(in));
+            p.detailedForecast = readString(in);
+            forecast.periods.add(p);
+        }
+        return forecast;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,22 @@
+package weather;
+
+import java.util.ArrayList;
+
+/**
+ * The parts of a /forecast response the app actually uses.
+ * Produced by ForecastParser without building the full Root tree.
+ */
+public class Forecast {
+    // expiresAt when the response had no usable Cache-Control or Expires header
+    public static final long EXPIRES_UNKNOWN = Long.MIN_VALUE;
+
+    // epoch millis, 0 if the response didn't have them
+    public long generatedAt;
+    public long updateTime;
+    // epoch millis after which the server says the response is stale (Cache-Control/Expires),
+    // EXPIRES_UNKNOWN if it didn't say. no-cache, no-store and max-age=0 give the time of the response
+    public long expiresAt = EXPIRES_UNKNOWN;
+    public ArrayList<Period> periods = new ArrayList<>();
+    // only filled in when parsed with ForecastParser.parseWithGeometry
+    public CompactGeometry geometry;
+}
@@ -0,0 +1,111 @@
+package weather;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Fetches many grid points at once over the shared client.
+ * At most maxConcurrency requests are in flight; each finished request
+ * immediately starts the next queued one, so no thread sits blocked
+ * waiting for a slot.
+ */
+public class ForecastBatch {
+    private static final BiFunction<GridPoint, Executor, CompletableFuture<ArrayList<Period>>> API =
+            (p, executor) -> WeatherAPI.getForecastAsync(p.region, p.gridX, p.gridY, executor);
+
+    // one future per key, each completing as soon as that grid point answers.
+    // a failed key completes with a ForecastResult carrying the error, never exceptionally.
+    public static Map<GridPoint, CompletableFuture<ForecastResult>> fetchAll(Collection<GridPoint> points, int maxConcurrency) {
+        return fetchAll(points, maxConcurrency, ForkJoinPool.commonPool(), result -> { });
+    }
+
+    // streaming variant: onResult is called for every key in completion order, so the
+    // first answers can be shown before the slowest grid point responds.
+    // the returned future completes once every key has been reported.
+    public static CompletableFuture<Void> fetchAll(Collection<GridPoint> points, int maxConcurrency,
+                                                   Consumer<ForecastResult> onResult) {
+        Map<GridPoint, CompletableFuture<ForecastResult>> futures =
+                fetchAll(points, maxConcurrency, ForkJoinPool.commonPool(), onResult);
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    public static Map<GridPoint, CompletableFuture<ForecastResult>> fetchAll(Collection<GridPoint> points, int maxConcurrency,
+                                                                             Executor executor, Consumer<ForecastResult> onResult) {
+        return fetchAll(points, maxConcurrency, executor, onResult, API);
+    }
+
+    // fetch stands in for WeatherAPI.getForecastAsync
+    static Map<GridPoint, CompletableFuture<ForecastResult>> fetchAll(Collection<GridPoint> points, int maxConcurrency,
+                                                                      Executor executor, Consumer<ForecastResult> onResult,
+                                                                      BiFunction<GridPoint, Executor, CompletableFuture<ArrayList<Period>>> fetch) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        Map<GridPoint, CompletableFuture<ForecastResult>> futures = new LinkedHashMap<>();
+        ConcurrentLinkedQueue<GridPoint> queue = new ConcurrentLinkedQueue<>();
+        for (GridPoint p : points) {
+            if (!futures.containsKey(p)) {
+                futures.put(p, new CompletableFuture<>());
+                queue.add(p);
+            }
+        }
+        int lanes = Math.min(maxConcurrency, futures.size());
+        for (int i = 0; i < lanes; i++) {
+            startNext(queue, futures, executor, onResult, fetch);
+        }
+        return futures;
+    }
+
+    // works through the queue on one lane. A fetch that has already finished when it is
+    // returned (e.g. one that failed before anything was sent) is reported here and the loop
+    // moves on, so a long run of such failures doesn't nest callbacks and grow the stack.
+    private static void startNext(ConcurrentLinkedQueue<GridPoint> queue, Map<GridPoint, CompletableFuture<ForecastResult>> futures,
+                                  Executor executor, Consumer<ForecastResult> onResult,
+                                  BiFunction<GridPoint, Executor, CompletableFuture<ArrayList<Period>>> fetch) {
+        GridPoint p;
+        while ((p = queue.poll()) != null) {
+            GridPoint point = p;
+            CompletableFuture<ArrayList<Period>> fetched;
+            try {
+                fetched = fetch.apply(p, executor);
+            } catch (RuntimeException e) {
+                fetched = CompletableFuture.failedFuture(e);
+            }
+            if (!fetched.isDone()) {
+                fetched.whenComplete((periods, error) -> {
+                    report(point, periods, error, futures, onResult);
+                    startNext(queue, futures, executor, onResult, fetch);
+                });
+                return;
+            }
+            fetched.whenComplete((periods, error) -> report(point, periods, error, futures, onResult));
+        }
+    }
+
+    private static void report(GridPoint p, ArrayList<Period> periods, Throwable error,
+                               Map<GridPoint, CompletableFuture<ForecastResult>> futures, Consumer<ForecastResult> onResult) {
+        ForecastResult result = new ForecastResult(p, error == null ? periods : null, unwrap(error));
+        try {
+            onResult.accept(result);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        futures.get(p).complete(result);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
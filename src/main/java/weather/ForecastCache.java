@@ -0,0 +1,219 @@
+package weather;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory forecast cache keyed by grid point.
+ * - an entry stays fresh until the response's Cache-Control/Expires time, which may
+ *   mean not at all (no-cache, max-age=0); without those headers until one NWS
+ *   update interval after Properties.updateTime, and otherwise for defaultTtlMillis
+ * - at most maxEntries grid points are kept, least recently used evicted first
+ * - concurrent requests for the same grid point share one fetch
+ * - while the API's circuit breaker is open, get() answers with the stale copy
+ *   (from memory or disk) instead of failing, if there is one
+ * - optionally every forecast is also written to a DiskForecastCache
+ */
+public class ForecastCache {
+    // NWS regenerates grid forecasts roughly hourly
+    static final long UPDATE_INTERVAL_MILLIS = 60 * 60 * 1000;
+
+    private static final ForecastCache SHARED = new ForecastCache(64, 10 * 60 * 1000, ForkJoinPool.commonPool());
+
+    private static class Entry {
+        final Forecast forecast;
+        final long expiresAt;
+
+        Entry(Forecast forecast, long expiresAt) {
+            this.forecast = forecast;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long defaultTtlMillis;
+    private final Executor executor;
+    private final LinkedHashMap<GridPoint, Entry> entries;
+    private final ConcurrentHashMap<GridPoint, CompletableFuture<Forecast>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private volatile DiskForecastCache disk;
+
+    public ForecastCache(int maxEntries, long defaultTtlMillis, Executor executor) {
+        this.maxEntries = maxEntries;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.executor = executor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GridPoint, Entry> eldest) {
+                return size() > ForecastCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static ForecastCache getShared() {
+        return SHARED;
+    }
+
+    // persists every forecast that lands in this cache, and lets peek() fall back to it
+    public void setDiskCache(DiskForecastCache disk) {
+        this.disk = disk;
+    }
+
+    // cached forecast if still fresh, otherwise a (shared) network fetch
+    public CompletableFuture<Forecast> get(GridPoint point) {
+        Forecast fresh = getIfFresh(point);
+        if (fresh != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(fresh);
+        }
+        misses.increment();
+        CircuitBreaker breaker = WeatherAPI.getCircuitBreaker();
+        if (breaker != null && breaker.getState() == CircuitBreaker.State.OPEN) {
+            Forecast stale = peek(point);
+            if (stale != null) {
+                staleServed.increment();
+                return CompletableFuture.completedFuture(stale);
+            }
+        }
+        return refresh(point).handle((forecast, error) -> {
+            if (error == null) {
+                return forecast;
+            }
+            // the breaker opened while this request was waiting
+            Forecast stale = unwrap(error) instanceof CircuitBreaker.OpenException ? peek(point) : null;
+            if (stale == null) {
+                throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+            }
+            staleServed.increment();
+            return stale;
+        });
+    }
+
+    // fetches even if a fresh copy is cached; joins a fetch already in flight for the same point.
+    // callers get their own copy of the future, so cancelling it never affects other waiters
+    public CompletableFuture<Forecast> refresh(GridPoint point) {
+        CompletableFuture<Forecast> created = new CompletableFuture<>();
+        CompletableFuture<Forecast> existing = inFlight.putIfAbsent(point, created);
+        if (existing != null) {
+            return existing.copy();
+        }
+        CompletableFuture<Forecast> fetch;
+        try {
+            fetch = WeatherAPI.fetchForecastAsync(point.region, point.gridX, point.gridY, executor);
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        fetch.whenComplete((forecast, error) -> {
+            if (error == null) {
+                put(point, forecast);
+            }
+            inFlight.remove(point, created);
+            if (error == null) {
+                created.complete(forecast);
+            } else {
+                created.completeExceptionally(error);
+            }
+        });
+        return created.copy();
+    }
+
+    // the newest cached forecast for the point even if it is stale, or null.
+    // checks the disk cache when memory has nothing; a forecast loaded from disk is kept as stale
+    public Forecast peek(GridPoint point) {
+        synchronized (this) {
+            Entry e = entries.get(point);
+            if (e != null) {
+                return e.forecast;
+            }
+        }
+        DiskForecastCache d = disk;
+        Forecast stored = d == null ? null : d.load(point);
+        if (stored != null) {
+            synchronized (this) {
+                entries.putIfAbsent(point, new Entry(stored, 0));
+            }
+        }
+        return stored;
+    }
+
+    public synchronized Forecast getIfFresh(GridPoint point) {
+        Entry e = entries.get(point);
+        if (e == null || e.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return e.forecast;
+    }
+
+    // when the cached entry for point goes stale (epoch millis), 0 if nothing or only a disk copy is cached
+    public synchronized long getExpiresAt(GridPoint point) {
+        Entry e = entries.get(point);
+        return e == null ? 0 : e.expiresAt;
+    }
+
+    public void put(GridPoint point, Forecast forecast) {
+        long expiresAt = expiryFor(forecast, System.currentTimeMillis());
+        synchronized (this) {
+            entries.put(point, new Entry(forecast, expiresAt));
+        }
+        DiskForecastCache d = disk;
+        if (d != null) {
+            d.saveAsync(point, forecast);
+        }
+    }
+
+    public synchronized void invalidate(GridPoint point) {
+        entries.remove(point);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // stale forecasts handed out because the circuit breaker was open
+    public long getStaleServed() {
+        return staleServed.sum();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // an expiry the server gave is kept even if it has passed already (no-cache, max-age=0, an old
+    // Expires): the entry is stale from the start, so the next get() revalidates it, but it is still
+    // there for peek() while the API is unreachable
+    long expiryFor(Forecast forecast, long now) {
+        if (forecast.expiresAt != Forecast.EXPIRES_UNKNOWN) {
+            return forecast.expiresAt;
+        }
+        if (forecast.updateTime != 0) {
+            long nextUpdate = forecast.updateTime + UPDATE_INTERVAL_MILLIS;
+            if (nextUpdate > now) {
+                return Math.min(nextUpdate, now + UPDATE_INTERVAL_MILLIS);
+            }
+        }
+        return now + defaultTtlMillis;
+    }
+}
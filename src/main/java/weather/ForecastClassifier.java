@@ -0,0 +1,271 @@
+package weather;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the icon rule for a forecast text such as "Chance Showers And Thunderstorms".
+ *
+ * The rules are data (see /weather/icon-rules.txt). All their keywords are compiled
+ * once into an Aho-Corasick automaton, so a text is scanned a single time,
+ * case-insensitively and without lowercasing into a new String; the rules are then
+ * checked against the bit set of keywords found. Results are memoized per distinct text.
+ *
+ * -Dweather.iconRules=/path/to/file loads the rules from a file instead of the bundled resource.
+ */
+public class ForecastClassifier {
+    public static final String RULES_RESOURCE = "/weather/icon-rules.txt";
+    static final int MAX_MEMO = 4096;
+    private static final int ALPHABET = 128;
+
+    private static volatile ForecastClassifier defaultClassifier;
+
+    public static class Rule {
+        public final String name;
+        public final String dayIcon;
+        public final String nightIcon;
+        // each element is one "&" clause: bit mask of keywords, any of which satisfies it
+        private final long[] clauses;
+
+        Rule(String name, long[] clauses, String dayIcon, String nightIcon) {
+            this.name = name;
+            this.clauses = clauses;
+            this.dayIcon = dayIcon;
+            this.nightIcon = nightIcon;
+        }
+
+        boolean matches(long found) {
+            for (long clause : clauses) {
+                if ((found & clause) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final Rule NO_MATCH = new Rule("none", new long[0], null, null);
+
+    private final List<Rule> rules;
+    private final int[] transitions;  // node * ALPHABET + char -> next node
+    private final long[] outputs;     // keywords ending at a node, including via fail links
+    private final ConcurrentHashMap<String, Rule> memo = new ConcurrentHashMap<>();
+
+    // the rules from -Dweather.iconRules or the bundled resource, loaded once
+    public static ForecastClassifier getDefault() {
+        ForecastClassifier c = defaultClassifier;
+        if (c == null) {
+            synchronized (ForecastClassifier.class) {
+                c = defaultClassifier;
+                if (c == null) {
+                    c = loadDefault();
+                    defaultClassifier = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    private static ForecastClassifier loadDefault() {
+        String file = System.getProperty("weather.iconRules");
+        try (InputStream in = file != null ? Files.newInputStream(Paths.get(file))
+                : ForecastClassifier.class.getResourceAsStream(RULES_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + RULES_RESOURCE);
+            }
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ForecastClassifier load(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lines.add(line);
+        }
+        return parse(lines);
+    }
+
+    // lines in the icon-rules.txt format; blank lines and # comments are ignored
+    public static ForecastClassifier parse(List<String> lines) {
+        Map<String, Integer> keywords = new LinkedHashMap<>();
+        List<Rule> rules = new ArrayList<>();
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            int arrow = line.indexOf("->");
+            if (colon < 0 || arrow < colon) {
+                throw new IllegalArgumentException("Bad icon rule: " + raw);
+            }
+            String name = line.substring(0, colon).trim();
+            String expression = line.substring(colon + 1, arrow).trim();
+            String[] icons = line.substring(arrow + 2).split(",");
+            if (icons.length != 2) {
+                throw new IllegalArgumentException("Icon rule needs a day and a night icon: " + raw);
+            }
+            List<Long> clauses = new ArrayList<>();
+            if (!expression.equals("*")) {
+                for (String clause : expression.split("&", -1)) {
+                    long mask = 0;
+                    for (String alternative : clause.split("\\|", -1)) {
+                        String keyword = alternative.trim().toLowerCase();
+                        if (keyword.isEmpty()) {
+                            throw new IllegalArgumentException("Empty keyword in icon rule: " + raw);
+                        }
+                        Integer id = keywords.get(keyword);
+                        if (id == null) {
+                            id = keywords.size();
+                            if (id >= 64) {
+                                throw new IllegalArgumentException("At most 64 distinct keywords are supported");
+                            }
+                            keywords.put(keyword, id);
+                        }
+                        mask |= 1L << id;
+                    }
+                    clauses.add(mask);
+                }
+            }
+            long[] clauseMasks = new long[clauses.size()];
+            for (int i = 0; i < clauseMasks.length; i++) {
+                clauseMasks[i] = clauses.get(i);
+            }
+            rules.add(new Rule(name, clauseMasks, icons[0].trim(), icons[1].trim()));
+        }
+        return new ForecastClassifier(rules, new ArrayList<>(keywords.keySet()));
+    }
+
+    private ForecastClassifier(List<Rule> rules, List<String> keywords) {
+        this.rules = Collections.unmodifiableList(rules);
+
+        // trie of all keywords
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Long> out = new ArrayList<>();
+        gotoTable.add(newRow());
+        out.add(0L);
+        for (int k = 0; k < keywords.size(); k++) {
+            String word = keywords.get(k);
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Icon rule keywords must be ASCII: " + word);
+                }
+                if (gotoTable.get(node)[c] < 0) {
+                    gotoTable.get(node)[c] = gotoTable.size();
+                    gotoTable.add(newRow());
+                    out.add(0L);
+                }
+                node = gotoTable.get(node)[c];
+            }
+            out.set(node, out.get(node) | (1L << k));
+        }
+
+        // breadth-first fail links, folded straight into a full transition table
+        int nodes = gotoTable.size();
+        transitions = new int[nodes * ALPHABET];
+        outputs = new long[nodes];
+        int[] fail = new int[nodes];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = gotoTable.get(0)[c];
+            transitions[c] = next < 0 ? 0 : next;
+            if (next > 0) {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        outputs[0] = out.get(0);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            outputs[node] = out.get(node) | outputs[fail[node]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = gotoTable.get(node)[c];
+                if (next < 0) {
+                    transitions[node * ALPHABET + c] = transitions[fail[node] * ALPHABET + c];
+                } else {
+                    fail[next] = transitions[fail[node] * ALPHABET + c];
+                    transitions[node * ALPHABET + c] = next;
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    // first rule matching the text, or null if none does
+    public Rule classify(String text) {
+        if (text == null) {
+            return null;
+        }
+        Rule r = memo.get(text);
+        if (r == null) {
+            r = match(text);
+            if (memo.size() >= MAX_MEMO) {
+                memo.clear();
+            }
+            memo.put(text, r);
+        }
+        return r == NO_MATCH ? null : r;
+    }
+
+    // icon resource path for the text, or null if no rule matches
+    public String iconPath(String text, boolean isNight) {
+        Rule r = classify(text);
+        if (r == null) {
+            return null;
+        }
+        return isNight ? r.nightIcon : r.dayIcon;
+    }
+
+    // distinct texts memoized right now
+    int memoSize() {
+        return memo.size();
+    }
+
+    private Rule match(String text) {
+        long found = 0;
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            // as String.toLowerCase(Locale.ROOT) would, where a dotted capital I becomes "i" plus a
+            // combining dot and so can't complete an ASCII keyword
+            char raw = text.charAt(i);
+            char c = raw == '\u0130' ? '\u0307' : Character.toLowerCase(raw);
+            node = c < ALPHABET ? transitions[node * ALPHABET + c] : 0;
+            found |= outputs[node];
+        }
+        for (Rule r : rules) {
+            if (r.matches(found)) {
+                return r;
+            }
+        }
+        return NO_MATCH;
+    }
+}
@@ -0,0 +1,221 @@
+package weather;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Streaming decoder for /forecast responses built on Jackson's JsonParser.
+ * Only properties.periods and the timestamps are bound; everything else
+ * (geometry polygon, @context, ...) is skipped token by token and never
+ * turned into objects.
+ *
+ * /forecast/hourly responses go through parseHourly(), which reads each hour's
+ * fields straight into an HourlySeries without creating Period objects.
+ */
+public class ForecastParser {
+    private static final ObjectReader PERIOD_READER = WeatherAPI.MAPPER.readerFor(Period.class);
+    private static final ObjectReader GEOMETRY_READER = WeatherAPI.MAPPER.readerFor(CompactGeometry.class);
+
+    public static Forecast parse(InputStream in) throws IOException {
+        return parse(in, null);
+    }
+
+    public static Forecast parse(byte[] body) throws IOException {
+        try (JsonParser p = WeatherAPI.MAPPER.getFactory().createParser(body)) {
+            return parse(p, null);
+        }
+    }
+
+    // if onPeriod is given each Period is handed to it as soon as it is decoded
+    // and is not collected into Forecast.periods
+    public static Forecast parse(InputStream in, Consumer<Period> onPeriod) throws IOException {
+        try (JsonParser p = WeatherAPI.MAPPER.getFactory().createParser(in)) {
+            return parse(p, onPeriod);
+        }
+    }
+
+    // also decodes the forecast polygon into Forecast.geometry (flat double[] storage)
+    public static Forecast parseWithGeometry(InputStream in) throws IOException {
+        try (JsonParser p = WeatherAPI.MAPPER.getFactory().createParser(in)) {
+            return parse(p, null, true);
+        }
+    }
+
+    static Forecast parse(JsonParser p, Consumer<Period> onPeriod) throws IOException {
+        return parse(p, onPeriod, false);
+    }
+
+    static Forecast parse(JsonParser p, Consumer<Period> onPeriod, boolean withGeometry) throws IOException {
+        Forecast forecast = new Forecast();
+        expect(p.nextToken(), JsonToken.START_OBJECT, p);
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            if ("properties".equals(field) && p.currentToken() == JsonToken.START_OBJECT) {
+                parseProperties(p, forecast, onPeriod);
+            } else if (withGeometry && "geometry".equals(field) && p.currentToken() == JsonToken.START_OBJECT) {
+                forecast.geometry = GEOMETRY_READER.readValue(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return forecast;
+    }
+
+    private static void parseProperties(JsonParser p, Forecast forecast, Consumer<Period> onPeriod) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            if ("periods".equals(field) && value == JsonToken.START_ARRAY) {
+                while (p.nextToken() == JsonToken.START_OBJECT) {
+                    Period period = PERIOD_READER.readValue(p);
+                    if (onPeriod != null) {
+                        onPeriod.accept(period);
+                    } else {
+                        forecast.periods.add(period);
+                    }
+                }
+            } else if ("updateTime".equals(field) && value == JsonToken.VALUE_STRING) {
+                forecast.updateTime = epochMillis(p.getText(), p);
+            } else if ("generatedAt".equals(field) && value == JsonToken.VALUE_STRING) {
+                forecast.generatedAt = epochMillis(p.getText(), p);
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    // decodes a /forecast/hourly response into columns; only the fields HourlySeries keeps are read
+    public static HourlySeries parseHourly(InputStream in) throws IOException {
+        try (JsonParser p = WeatherAPI.MAPPER.getFactory().createParser(in)) {
+            return parseHourly(p);
+        }
+    }
+
+    public static HourlySeries parseHourly(byte[] body) throws IOException {
+        try (JsonParser p = WeatherAPI.MAPPER.getFactory().createParser(body)) {
+            return parseHourly(p);
+        }
+    }
+
+    static HourlySeries parseHourly(JsonParser p) throws IOException {
+        HourlySeries.Builder hours = new HourlySeries.Builder();
+        long generatedAt = 0;
+        expect(p.nextToken(), JsonToken.START_OBJECT, p);
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            if (!"properties".equals(field) || p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String property = p.getCurrentName();
+                JsonToken value = p.nextToken();
+                if ("periods".equals(property) && value == JsonToken.START_ARRAY) {
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        parseHour(p, hours);
+                    }
+                } else if ("generatedAt".equals(property) && value == JsonToken.VALUE_STRING) {
+                    generatedAt = epochMillis(p.getText(), p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        HourlySeries series = hours.build();
+        series.generatedAt = generatedAt;
+        return series;
+    }
+
+    // reads one period object (the parser is on its START_OBJECT) and appends it
+    private static void parseHour(JsonParser p, HourlySeries.Builder hours) throws IOException {
+        long startTime = 0;
+        int temperature = 0;
+        int precipitation = HourlySeries.UNKNOWN_PRECIPITATION;
+        String condition = null;
+        boolean isDaytime = false;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "startTime":
+                    startTime = epochMillis(stringValue(p, value), p);
+                    break;
+                case "temperature":
+                    temperature = value.isNumeric() ? p.getIntValue() : 0;
+                    break;
+                case "temperatureUnit":
+                    hours.temperatureUnit(stringValue(p, value));
+                    break;
+                case "isDaytime":
+                    isDaytime = value == JsonToken.VALUE_TRUE;
+                    break;
+                case "shortForecast":
+                    condition = stringValue(p, value);
+                    break;
+                case "probabilityOfPrecipitation":
+                    precipitation = quantitativeValue(p, value);
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        // an hour without a start time can't be put in order, so it is left out
+        if (startTime != 0) {
+            hours.add(startTime, temperature, precipitation, condition, isDaytime);
+        }
+    }
+
+    // the text of a string value, or null for null or any other kind of value (which is skipped)
+    private static String stringValue(JsonParser p, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    // the integer "value" of a {"unitCode": ..., "value": ...} object, or UNKNOWN_PRECIPITATION if null
+    private static int quantitativeValue(JsonParser p, JsonToken value) throws IOException {
+        int result = HourlySeries.UNKNOWN_PRECIPITATION;
+        if (value != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return result;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken v = p.nextToken();
+            if ("value".equals(field) && v.isNumeric()) {
+                result = p.getIntValue();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    // 0 for a null or empty timestamp, like one that isn't there
+    private static long epochMillis(String text, JsonParser p) throws IOException {
+        if (text == null) {
+            return 0;
+        }
+        try {
+            long millis = IsoTime.parseMillis(text);
+            return millis == IsoTime.NO_TIME ? 0 : millis;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad timestamp " + text + " at " + p.getCurrentLocation(), e);
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, JsonParser p) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual + " at " + p.getCurrentLocation());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package weather;
+
+import java.util.ArrayList;
+
+/**
+ * Outcome of fetching one grid point in a batch.
+ * Exactly one of periods / error is set.
+ */
+public class ForecastResult {
+    public final GridPoint point;
+    public final ArrayList<Period> periods;
+    public final Throwable error;
+
+    public ForecastResult(GridPoint point, ArrayList<Period> periods, Throwable error) {
+        this.point = point;
+        this.periods = periods;
+        this.error = error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
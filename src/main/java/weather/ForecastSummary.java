@@ -0,0 +1,104 @@
+package weather;
+
+import java.util.ArrayList;
+import java.util.function.BiFunction;
+
+/**
+ * Everything the today and 7-day screens show, as plain text and icon paths.
+ * Built from the raw periods on a background thread so the FX thread only
+ * has to put the values into nodes.
+ */
+public class ForecastSummary {
+
+    // one day or night block: what a card or the today screen shows for a period
+    public static class Section {
+        public String name;
+        public String temperature;   // e.g. "64°F"
+        public String description;   // short forecast
+        public String iconPath;      // resource path of the weather icon
+        public String precipitation; // e.g. "Precip: 40%"
+        public String wind;          // e.g. "Wind: 10 to 15 mph"
+    }
+
+    // one card of the 7-day screen
+    public static class DayCard {
+        public String title;
+        public Section day;
+        public Section night;
+    }
+
+    public String city;
+    public String detailedForecast;
+    public Section today;
+    public Section tonight;
+    public String todayWind;          // speed and direction, e.g. "10 to 15 mph NNW"
+    public String todayPrecipitation; // e.g. "40%"
+    public ArrayList<DayCard> days = new ArrayList<>();
+
+    // iconPaths maps (shortForecast, isNight) to an icon resource path
+    public static ForecastSummary build(String city, ArrayList<Period> periods,
+                                        BiFunction<String, Boolean, String> iconPaths) {
+        if (periods == null || periods.size() < 2) {
+            throw new IllegalArgumentException("Forecast needs at least two periods");
+        }
+        ForecastSummary s = new ForecastSummary();
+        s.city = city;
+
+        Period first = periods.get(0);
+        s.detailedForecast = first.detailedForecast;
+        s.today = section(first, false, false, iconPaths);
+        s.tonight = section(periods.get(1), true, false, iconPaths);
+        s.todayWind = first.windSpeed + " " + first.windDirection;
+        s.todayPrecipitation = precipitation(first) + "%";
+
+        // pair day/night periods into cards, same rules the forecast screen always used
+        int day = 0;
+        int maxDays = 12;
+        int i = 0;
+        while (i < periods.size() - 1 && day < maxDays) {
+            Period dayPeriod = periods.get(i);
+            Period nightPeriod = periods.get(i + 1);
+            if (dayPeriod.isDaytime && !nightPeriod.isDaytime) {
+                i += 2;
+                day++;
+            } else {
+                i++;
+            }
+            DayCard card = new DayCard();
+            card.title = (i == 1) ? "Today" : dayPeriod.name;
+            card.day = section(dayPeriod, false, false, iconPaths);
+            card.night = section(nightPeriod, true, true, iconPaths);
+            s.days.add(card);
+            day++;
+        }
+        return s;
+    }
+
+    private static Section section(Period p, boolean isNight, boolean clearSkiesAtNight,
+                                   BiFunction<String, Boolean, String> iconPaths) {
+        Section sec = new Section();
+        sec.name = p.name;
+        sec.temperature = p.temperature + "°" + p.temperatureUnit;
+        sec.description = clearSkiesAtNight ? nightDescription(p.shortForecast) : p.shortForecast;
+        sec.iconPath = iconPaths.apply(p.shortForecast, isNight);
+        sec.precipitation = "Precip: " + precipitation(p) + "%";
+        sec.wind = "Wind: " + p.windSpeed;
+        return sec;
+    }
+
+    private static int precipitation(Period p) {
+        if (p.probabilityOfPrecipitation != null && p.probabilityOfPrecipitation.value > 0) {
+            return p.probabilityOfPrecipitation.value;
+        }
+        return 0;
+    }
+
+    // "Sunny" reads oddly for a night period, so it becomes "Clear skies"
+    private static String nightDescription(String description) {
+        if (description.toLowerCase().contains("sunny")) {
+            description = description.toLowerCase().replace("sunny", "clear skies");
+            description = description.substring(0, 1).toUpperCase() + description.substring(1);
+        }
+        return description;
+    }
+}
@@ -0,0 +1,135 @@
+package weather;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the ETag / Last-Modified validators and the parsed forecast of the
+ * last full response per grid point, so the next request can be conditional.
+ * A 304 Not Modified answer then reuses the stored periods without parsing.
+ *
+ * Like ForecastCache it keeps at most maxEntries grid points, least recently
+ * used evicted first, so it never holds forecasts for more points than the
+ * cache does. A point that was evicted is simply fetched unconditionally.
+ */
+public class ForecastValidators {
+    // what a conditional request was sent with; the 304 is answered from this, even if evicted since
+    static final class Entry {
+        final String etag;
+        final String lastModified;
+        final long generatedAt;
+        final long updateTime;
+        final ArrayList<Period> periods;
+        final CompactGeometry geometry;
+
+        Entry(String etag, String lastModified, Forecast forecast) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.generatedAt = forecast.generatedAt;
+            this.updateTime = forecast.updateTime;
+            this.periods = new ArrayList<>(forecast.periods); // the caller owns the list it was given
+            this.geometry = forecast.geometry;
+        }
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<GridPoint, Entry> entries;   // guarded by this
+    private final LongAdder fullResponses = new LongAdder();
+    private final LongAdder notModifiedResponses = new LongAdder();
+
+    // the bound from -Dweather.validators.maxEntries, default 64 like the shared ForecastCache
+    public ForecastValidators() {
+        this(Integer.getInteger("weather.validators.maxEntries", 64));
+    }
+
+    public ForecastValidators(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GridPoint, Entry> eldest) {
+                return size() > ForecastValidators.this.maxEntries;
+            }
+        };
+    }
+
+    // adds If-None-Match / If-Modified-Since when we have a previous response for the point;
+    // returns what was used, for notModified, or null if the request is unconditional
+    Entry addConditions(GridPoint point, HttpRequest.Builder request) {
+        Entry e;
+        synchronized (this) {
+            e = entries.get(point);
+        }
+        if (e == null) {
+            return null;
+        }
+        if (e.etag != null) {
+            request.header("If-None-Match", e.etag);
+        }
+        if (e.lastModified != null) {
+            request.header("If-Modified-Since", e.lastModified);
+        }
+        return e;
+    }
+
+    // stores the validators of a 200 response; responses without any validator aren't kept
+    void storeFull(GridPoint point, HttpHeaders headers, Forecast forecast) {
+        fullResponses.increment();
+        String etag = headers.firstValue("ETag").orElse(null);
+        String lastModified = headers.firstValue("Last-Modified").orElse(null);
+        Entry e = etag == null && lastModified == null ? null : new Entry(etag, lastModified, forecast);
+        synchronized (this) {
+            if (e == null) {
+                entries.remove(point);
+            } else {
+                entries.put(point, e);
+            }
+        }
+    }
+
+    // forecast to use for a 304 to a request sent with the given entry: its periods (in a new list)
+    // with the new expiry, or null if the request was not conditional
+    Forecast notModified(Entry sent, long expiresAt) {
+        if (sent == null) {
+            return null;
+        }
+        notModifiedResponses.increment();
+        Forecast forecast = new Forecast();
+        forecast.generatedAt = sent.generatedAt;
+        forecast.updateTime = sent.updateTime;
+        forecast.periods = new ArrayList<>(sent.periods);
+        forecast.geometry = sent.geometry;
+        forecast.expiresAt = expiresAt;
+        return forecast;
+    }
+
+    public synchronized void forget(GridPoint point) {
+        entries.remove(point);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    // grid points with stored validators
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    // number of 200 responses seen
+    public long getFullResponses() {
+        return fullResponses.sum();
+    }
+
+    // number of 304 responses answered from stored periods
+    public long getNotModifiedResponses() {
+        return notModifiedResponses.sum();
+    }
+}
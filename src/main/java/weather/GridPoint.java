@@ -0,0 +1,35 @@
+package weather;
+
+/**
+ * Identifies one NWS forecast grid cell: weather office plus grid x/y.
+ * Used as the key for batch fetches and caches.
+ */
+public final class GridPoint {
+    public final String region;
+    public final int gridX;
+    public final int gridY;
+
+    public GridPoint(String region, int gridX, int gridY) {
+        this.region = region;
+        this.gridX = gridX;
+        this.gridY = gridY;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GridPoint)) return false;
+        GridPoint other = (GridPoint) o;
+        return gridX == other.gridX && gridY == other.gridY && region.equals(other.region);
+    }
+
+    @Override
+    public int hashCode() {
+        return (region.hashCode() * 31 + gridX) * 31 + gridY;
+    }
+
+    @Override
+    public String toString() {
+        return region + "/" + gridX + "," + gridY;
+    }
+}
@@ -0,0 +1,324 @@
+package weather;
+
+import java.util.Arrays;
+
+/**
+ * Hourly forecast for one grid point stored column by column instead of one
+ * Period object per hour: parallel arrays of start times, temperatures,
+ * precipitation chances and condition ids. 156 hours take about 2 KB this way.
+ *
+ * Condition texts ("Chance Rain Showers", ...) are stored as small ids into a
+ * table of the series' own distinct texts, usually a dozen or so. The texts
+ * themselves come from the shared StringDictionary, so each is kept once for
+ * the whole app, but the ids are per series: nothing global fills up however
+ * many different texts the API sends over time.
+ *
+ * Instances are immutable once built. subSeries() returns a view over the same
+ * arrays, so range queries don't copy anything.
+ */
+public class HourlySeries {
+    // precipitation() value for hours the API sent without a probability
+    public static final int UNKNOWN_PRECIPITATION = -1;
+
+    // ids must fit the short[] column
+    static final int MAX_CONDITIONS = Short.MAX_VALUE + 1;
+
+    // what forEach() hands out for each hour
+    public interface HourVisitor {
+        void visit(int index, long startTime, int temperature, int precipitation, String condition);
+    }
+
+    private final long[] startTimes;      // epoch millis, ascending
+    private final short[] temperatures;
+    private final byte[] precipitation;   // percent, or -1 if unknown
+    private final short[] conditionIds;   // index into conditions
+    private final String[] conditions;    // distinct condition texts of the whole (parent) series
+    private final long[] daytime;         // one bit per hour
+    private final int offset;
+    private final int length;
+
+    public final String temperatureUnit;
+    public long generatedAt;              // epoch millis, 0 if the response had none
+    public long expiresAt = Forecast.EXPIRES_UNKNOWN; // see Forecast.expiresAt
+
+    private HourlySeries(long[] startTimes, short[] temperatures, byte[] precipitation, short[] conditionIds,
+                         String[] conditions, long[] daytime, int offset, int length, String temperatureUnit) {
+        this.startTimes = startTimes;
+        this.temperatures = temperatures;
+        this.precipitation = precipitation;
+        this.conditionIds = conditionIds;
+        this.conditions = conditions;
+        this.daytime = daytime;
+        this.offset = offset;
+        this.length = length;
+        this.temperatureUnit = temperatureUnit;
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public long startTime(int i) {
+        return startTimes[index(i)];
+    }
+
+    public int temperature(int i) {
+        return temperatures[index(i)];
+    }
+
+    public int precipitation(int i) {
+        return precipitation[index(i)];
+    }
+
+    // id of hour i's condition; ids are only meaningful within this series and its views
+    public int conditionId(int i) {
+        return conditionIds[index(i)];
+    }
+
+    public String condition(int i) {
+        return conditions[conditionIds[index(i)]];
+    }
+
+    public boolean isDaytime(int i) {
+        int k = index(i);
+        return (daytime[k >>> 6] & (1L << k)) != 0;
+    }
+
+    // the text behind a condition id of this series
+    public String conditionName(int id) {
+        if (id < 0 || id >= conditions.length) {
+            throw new IllegalArgumentException("Unknown condition id " + id);
+        }
+        return conditions[id];
+    }
+
+    // id of a condition text in this series, or -1 if no hour of the (parent) series has it
+    public int conditionId(String condition) {
+        String text = condition == null ? "" : condition;
+        for (int id = 0; id < conditions.length; id++) {
+            if (conditions[id].equals(text)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    // distinct conditions of the whole series this one was built as (views share the table)
+    public int conditionCount() {
+        return conditions.length;
+    }
+
+    public void forEach(HourVisitor visitor) {
+        for (int i = 0; i < length; i++) {
+            int k = offset + i;
+            visitor.visit(i, startTimes[k], temperatures[k], precipitation[k], conditions[conditionIds[k]]);
+        }
+    }
+
+    // index of the hour that contains time, or -1 if time is before the first or after the last hour
+    public int indexAt(long time) {
+        int i = firstIndexAtOrAfter(time);
+        if (i < length && startTimes[offset + i] == time) {
+            return i;
+        }
+        if (i == 0 || (i == length && time >= startTimes[offset + length - 1] + hourLength())) {
+            return -1;
+        }
+        return i - 1;
+    }
+
+    // hours starting in [from, to), as a view sharing this series' arrays
+    public HourlySeries subSeries(long from, long to) {
+        int start = firstIndexAtOrAfter(from);
+        int end = Math.max(start, firstIndexAtOrAfter(to));
+        return new HourlySeries(startTimes, temperatures, precipitation, conditionIds, conditions, daytime,
+                offset + start, end - start, temperatureUnit);
+    }
+
+    // hours [fromIndex, toIndex) of this series
+    public HourlySeries slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(fromIndex + ".." + toIndex + " of " + length);
+        }
+        return new HourlySeries(startTimes, temperatures, precipitation, conditionIds, conditions, daytime,
+                offset + fromIndex, toIndex - fromIndex, temperatureUnit);
+    }
+
+    // Integer.MIN_VALUE if the series is empty
+    public int maxTemperature() {
+        int max = Integer.MIN_VALUE;
+        for (int k = offset; k < offset + length; k++) {
+            max = Math.max(max, temperatures[k]);
+        }
+        return max;
+    }
+
+    // Integer.MAX_VALUE if the series is empty
+    public int minTemperature() {
+        int min = Integer.MAX_VALUE;
+        for (int k = offset; k < offset + length; k++) {
+            min = Math.min(min, temperatures[k]);
+        }
+        return min;
+    }
+
+    // highest known chance of precipitation, or UNKNOWN_PRECIPITATION if no hour has one
+    public int maxPrecipitation() {
+        int max = UNKNOWN_PRECIPITATION;
+        for (int k = offset; k < offset + length; k++) {
+            max = Math.max(max, precipitation[k]);
+        }
+        return max;
+    }
+
+    // number of hours whose condition has the given id
+    public int countCondition(int conditionId) {
+        int count = 0;
+        for (int k = offset; k < offset + length; k++) {
+            if (conditionIds[k] == conditionId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // bytes held by the columns (shared with any views of the same series)
+    public long getColumnBytes() {
+        return startTimes.length * 8L + temperatures.length * 2L + precipitation.length
+                + conditionIds.length * 2L + conditions.length * 4L + daytime.length * 8L;
+    }
+
+    @Override
+    public String toString() {
+        return "HourlySeries[" + length + " hours" + (length == 0 ? "" : " from " + startTime(0)) + "]";
+    }
+
+    private int index(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException(i + " of " + length);
+        }
+        return offset + i;
+    }
+
+    private int firstIndexAtOrAfter(long time) {
+        int i = Arrays.binarySearch(startTimes, offset, offset + length, time);
+        if (i < 0) {
+            return -i - 1 - offset;
+        }
+        // equal start times can't happen in a valid forecast, but stay on the first one
+        while (i > offset && startTimes[i - 1] == time) {
+            i--;
+        }
+        return i - offset;
+    }
+
+    // spacing of the last two hours, one hour if there's only one
+    private long hourLength() {
+        if (length >= 2) {
+            return startTimes[offset + length - 1] - startTimes[offset + length - 2];
+        }
+        return 3_600_000L;
+    }
+
+    /**
+     * Appends hours in time order and grows the columns as needed;
+     * build() trims them to size.
+     */
+    public static class Builder {
+        private long[] startTimes;
+        private short[] temperatures;
+        private byte[] precipitation;
+        private short[] conditionIds;
+        private String[] conditions = new String[8];
+        private int conditionCount;
+        private long[] daytime;
+        private int size;
+        private String temperatureUnit = "F";
+
+        public Builder() {
+            this(168); // a week of hours; the API sends about 156
+        }
+
+        public Builder(int capacity) {
+            capacity = Math.max(capacity, 1);
+            startTimes = new long[capacity];
+            temperatures = new short[capacity];
+            precipitation = new byte[capacity];
+            conditionIds = new short[capacity];
+            daytime = new long[(capacity + 63) >>> 6];
+        }
+
+        public Builder temperatureUnit(String unit) {
+            if (unit != null) {
+                temperatureUnit = StringDictionary.getShared().intern(unit);
+            }
+            return this;
+        }
+
+        // precipitation is a percentage, or UNKNOWN_PRECIPITATION
+        public Builder add(long startTime, int temperature, int precipitation, String condition, boolean isDaytime) {
+            if (size > 0 && startTime < startTimes[size - 1]) {
+                throw new IllegalArgumentException("Hours must be added in time order");
+            }
+            if (size == startTimes.length) {
+                grow();
+            }
+            startTimes[size] = startTime;
+            temperatures[size] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, temperature));
+            this.precipitation[size] = (byte) Math.max(UNKNOWN_PRECIPITATION, Math.min(100, precipitation));
+            conditionIds[size] = (short) conditionId(condition);
+            if (isDaytime) {
+                daytime[size >>> 6] |= 1L << size;
+            }
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // id for a condition text, the next free one the first time the text is seen.
+        // a series has a handful of distinct texts, so a scan beats hashing
+        private int conditionId(String condition) {
+            String text = condition == null ? "" : condition;
+            for (int id = 0; id < conditionCount; id++) {
+                if (conditions[id].equals(text)) {
+                    return id;
+                }
+            }
+            if (conditionCount == MAX_CONDITIONS) {
+                throw new IllegalArgumentException("More than " + MAX_CONDITIONS + " distinct conditions in one series");
+            }
+            if (conditionCount == conditions.length) {
+                conditions = Arrays.copyOf(conditions, conditionCount * 2);
+            }
+            conditions[conditionCount] = StringDictionary.getShared().intern(text);
+            return conditionCount++;
+        }
+
+        public HourlySeries build() {
+            return new HourlySeries(
+                    Arrays.copyOf(startTimes, size),
+                    Arrays.copyOf(temperatures, size),
+                    Arrays.copyOf(precipitation, size),
+                    Arrays.copyOf(conditionIds, size),
+                    Arrays.copyOf(conditions, conditionCount),
+                    Arrays.copyOf(daytime, (size + 63) >>> 6),
+                    0, size, temperatureUnit);
+        }
+
+        private void grow() {
+            int capacity = startTimes.length * 2;
+            startTimes = Arrays.copyOf(startTimes, capacity);
+            temperatures = Arrays.copyOf(temperatures, capacity);
+            precipitation = Arrays.copyOf(precipitation, capacity);
+            conditionIds = Arrays.copyOf(conditionIds, capacity);
+            daytime = Arrays.copyOf(daytime, (capacity + 63) >>> 6);
+        }
+    }
+}
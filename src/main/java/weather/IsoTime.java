@@ -0,0 +1,187 @@
+package weather;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parser for the timestamps the API sends, e.g. "2025-04-14T06:00:00-05:00".
+ * Reads the digits in place and computes epoch millis with integer math, so it
+ * allocates nothing and keeps the UTC offset (java.util.Date dropped it).
+ *
+ * Accepted fast-path shape: yyyy-MM-ddTHH:mm:ss, optional fraction, then Z,
+ * +HH:MM or -HH:MM, with every field in range (the day checked against the
+ * month, the offset within +-18:00). Anything else falls back to
+ * OffsetDateTime.parse, so an unexpected format is slower but gets the same
+ * answer or the same rejection.
+ *
+ * A missing timestamp (JSON null or "") is not an error: it parses to NO_TIME
+ * with offset 0.
+ */
+public final class IsoTime {
+    // parseMillis() of null or ""; far outside any date OffsetDateTime can represent
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private IsoTime() {
+    }
+
+    // epoch millis of an ISO-8601 timestamp with offset, NO_TIME for null or ""
+    public static long parseMillis(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return NO_TIME;
+        }
+        if (fastShape(text)) {
+            long local = localMillis(text);
+            return local - offsetMinutes(text, offsetStart(text)) * 60_000L;
+        }
+        return slow(text).toInstant().toEpochMilli();
+    }
+
+    // UTC offset of the timestamp in minutes, e.g. -300 for "-05:00"; 0 for null or ""
+    public static int parseOffsetMinutes(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return 0;
+        }
+        if (fastShape(text)) {
+            return offsetMinutes(text, offsetStart(text));
+        }
+        return slow(text).getOffset().getTotalSeconds() / 60;
+    }
+
+    // the local date-time the API meant, for display
+    public static OffsetDateTime toOffsetDateTime(long epochMillis, int offsetMinutes) {
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(offsetMinutes * 60);
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), offset);
+    }
+
+    private static OffsetDateTime slow(CharSequence text) {
+        try {
+            return OffsetDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Not an ISO-8601 timestamp: " + text, e);
+        }
+    }
+
+    // yyyy-MM-ddTHH:mm:ss[.f+](Z|+HH:MM|-HH:MM) with every digit where it should be and every
+    // field in range; anything else is left to OffsetDateTime.parse to accept or reject
+    private static boolean fastShape(CharSequence s) {
+        int n = s.length();
+        if (n < 20 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return false;
+        }
+        if (!digits(s, 0, 4) || !digits(s, 5, 7) || !digits(s, 8, 10)
+                || !digits(s, 11, 13) || !digits(s, 14, 16) || !digits(s, 17, 19)) {
+            return false;
+        }
+        int i = offsetStart(s);
+        if (i < 0) {
+            return false;
+        }
+        if (s.charAt(i) == 'Z') {
+            return i == n - 1 && inRange(s);
+        }
+        return i == n - 6 && s.charAt(i + 3) == ':' && digits(s, i + 1, i + 3) && digits(s, i + 4, i + 6)
+                && number(s, i + 4, i + 6) <= 59 && Math.abs(offsetMinutes(s, i)) <= 18 * 60 && inRange(s);
+    }
+
+    private static boolean inRange(CharSequence s) {
+        int year = number(s, 0, 4);
+        int month = number(s, 5, 7);
+        int day = number(s, 8, 10);
+        return month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month)
+                && number(s, 11, 13) <= 23 && number(s, 14, 16) <= 59 && number(s, 17, 19) <= 59;
+    }
+
+    static int daysInMonth(int year, int month) {
+        if (month == 2 && year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    // index of Z/+/- after the seconds and optional fraction, or -1
+    private static int offsetStart(CharSequence s) {
+        int i = 19;
+        int n = s.length();
+        if (i < n && s.charAt(i) == '.') {
+            int first = ++i;
+            while (i < n && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i - first > 9) {
+                return -1; // java.time takes at most 9 fraction digits
+            }
+        }
+        if (i < n) {
+            char c = s.charAt(i);
+            if (c == 'Z' || c == '+' || c == '-') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long localMillis(CharSequence s) {
+        int year = number(s, 0, 4);
+        int month = number(s, 5, 7);
+        int day = number(s, 8, 10);
+        int hour = number(s, 11, 13);
+        int minute = number(s, 14, 16);
+        int second = number(s, 17, 19);
+        long millis = 0;
+        if (s.charAt(19) == '.') {
+            // first three fraction digits are the millis, the rest is dropped
+            int scale = 100;
+            for (int i = 20; i < s.length() && isDigit(s.charAt(i)) && scale > 0; i++, scale /= 10) {
+                millis += (s.charAt(i) - '0') * scale;
+            }
+        }
+        return epochDay(year, month, day) * MILLIS_PER_DAY
+                + hour * 3_600_000L + minute * 60_000L + second * 1000L + millis;
+    }
+
+    private static int offsetMinutes(CharSequence s, int i) {
+        char sign = s.charAt(i);
+        if (sign == 'Z') {
+            return 0;
+        }
+        int minutes = number(s, i + 1, i + 3) * 60 + number(s, i + 4, i + 6);
+        return sign == '-' ? -minutes : minutes;
+    }
+
+    // days since 1970-01-01 in the proleptic Gregorian calendar
+    static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static boolean digits(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int number(CharSequence s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            v = v * 10 + (s.charAt(i) - '0');
+        }
+        return v;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -5,8 +5,14 @@ import java.util.Date;
 public class Period{
     public int number;
     public String name;
-    public Date startTime;
+    public Date startTime;     // null if the API sent none
     public Date endTime;
+    // the same instants as epoch millis (IsoTime.NO_TIME if none), plus the UTC offset in minutes
+    // the API wrote them with; the setters below fill these and the Dates together
+    public long startTimeMillis = IsoTime.NO_TIME;
+    public int startOffsetMinutes;
+    public long endTimeMillis = IsoTime.NO_TIME;
+    public int endOffsetMinutes;
     public boolean isDaytime;
     public int temperature;
     public String temperatureUnit;
@@ -14,7 +20,67 @@ public class Period{
     public ProbabilityOfPrecipitation probabilityOfPrecipitation;
     public String windSpeed;
     public String windDirection;
+    // parsed once from windSpeed/windDirection when the period is decoded (see the setters);
+    // speeds are in the text's unit, WindSpeed.UNKNOWN if it had no number
+    public int windSpeedMin = WindSpeed.UNKNOWN;
+    public int windSpeedMax = WindSpeed.UNKNOWN;
+    public WindDirection windFrom;             // null if windDirection isn't a compass point
     public String icon;
     public String shortForecast;
     public String detailedForecast;
+
+    // Jackson calls these instead of setting the fields directly, so timestamps and
+    // wind values are turned into numbers once, as the JSON is read, and texts that
+    // repeat across periods are swapped for the StringDictionary's shared copy
+    public void setName(String name) {
+        this.name = StringDictionary.getShared().intern(name);
+    }
+
+    public void setStartTime(String startTime) {
+        setStartTime(IsoTime.parseMillis(startTime), IsoTime.parseOffsetMinutes(startTime));
+    }
+
+    public void setStartTime(long millis, int offsetMinutes) {
+        startTimeMillis = millis;
+        startOffsetMinutes = offsetMinutes;
+        startTime = millis == IsoTime.NO_TIME ? null : new Date(millis);
+    }
+
+    public void setEndTime(String endTime) {
+        setEndTime(IsoTime.parseMillis(endTime), IsoTime.parseOffsetMinutes(endTime));
+    }
+
+    public void setEndTime(long millis, int offsetMinutes) {
+        endTimeMillis = millis;
+        endOffsetMinutes = offsetMinutes;
+        endTime = millis == IsoTime.NO_TIME ? null : new Date(millis);
+    }
+
+    public void setTemperatureUnit(String temperatureUnit) {
+        this.temperatureUnit = StringDictionary.getShared().intern(temperatureUnit);
+    }
+
+    public void setTemperatureTrend(String temperatureTrend) {
+        this.temperatureTrend = StringDictionary.getShared().intern(temperatureTrend);
+    }
+
+    public void setWindSpeed(String windSpeed) {
+        this.windSpeed = StringDictionary.getShared().intern(windSpeed);
+        long range = WindSpeed.parse(windSpeed);
+        windSpeedMin = WindSpeed.min(range);
+        windSpeedMax = WindSpeed.max(range);
+    }
+
+    public void setWindDirection(String windDirection) {
+        this.windDirection = StringDictionary.getShared().intern(windDirection);
+        windFrom = WindDirection.parse(windDirection);
+    }
+
+    public void setIcon(String icon) {
+        this.icon = StringDictionary.getShared().intern(icon);
+    }
+
+    public void setShortForecast(String shortForecast) {
+        this.shortForecast = StringDictionary.getShared().intern(shortForecast);
+    }
 }
@@ -3,4 +3,9 @@ package weather;
 public class ProbabilityOfPrecipitation{
     public String unitCode;
     public int value;
+
+    // "wmoUnit:percent" in every period; keep one copy
+    public void setUnitCode(String unitCode) {
+        this.unitCode = StringDictionary.getShared().intern(unitCode);
+    }
 }
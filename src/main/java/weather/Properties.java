@@ -6,9 +6,21 @@ import java.util.Date;
 public class Properties{
     public String units;
     public String forecastGenerator;
-    public Date generatedAt;
+    public Date generatedAt;         // null if the API sent none
     public Date updateTime;
+    public long generatedAtMillis = IsoTime.NO_TIME; // the same instants as epoch millis
+    public long updateTimeMillis = IsoTime.NO_TIME;
     public String validTimes;
     public Elevation elevation;
     public ArrayList<Period> periods;
+
+    public void setGeneratedAt(String generatedAt) {
+        generatedAtMillis = IsoTime.parseMillis(generatedAt);
+        this.generatedAt = generatedAtMillis == IsoTime.NO_TIME ? null : new Date(generatedAtMillis);
+    }
+
+    public void setUpdateTime(String updateTime) {
+        updateTimeMillis = IsoTime.parseMillis(updateTime);
+        this.updateTime = updateTimeMillis == IsoTime.NO_TIME ? null : new Date(updateTimeMillis);
+    }
 }
@@ -0,0 +1,116 @@
+package weather;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by every request to the API: permitsPerSecond tokens
+ * are added per second, up to burst tokens, and each request takes one.
+ *
+ * Instead of a token count it keeps the time at which the next token is
+ * due; every token due by now is in the bucket. That makes taking a permit
+ * a single compare-and-set on one AtomicLong: no locks, and nothing for a
+ * large number of concurrent fetches to queue behind. A request that finds
+ * the bucket empty reserves the next free token anyway and is told how long
+ * to wait for it, so waiting callers are served in order.
+ */
+public class RateLimiter {
+    private final long intervalNanos;       // time to add one token
+    private final long fullNanos;           // how long an empty bucket takes to fill, less one token
+    private final LongSupplier clock;       // System.nanoTime, or a test's
+    private final AtomicLong nextDue;       // when the next token is due, by the clock
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitedNanos = new LongAdder();
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    // clock gives the time in nanos
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.fullNanos = intervalNanos * (burst - 1);
+        this.clock = clock;
+        this.nextDue = new AtomicLong(clock.getAsLong() - fullNanos); // starts full
+    }
+
+    // the limiter with the rate from -Dweather.rateLimit.perSecond (default 5, 0 = no limit, returns null)
+    // and -Dweather.rateLimit.burst (default 10)
+    public static RateLimiter fromSystemProperties() {
+        double rate = Double.parseDouble(System.getProperty("weather.rateLimit.perSecond", "5"));
+        if (rate <= 0) {
+            return null;
+        }
+        return new RateLimiter(rate, Integer.getInteger("weather.rateLimit.burst", 10));
+    }
+
+    /**
+     * Takes a permit. Returns 0 if one was free, otherwise how many nanos the
+     * caller must wait before its request may go out. Returns -1 and takes
+     * nothing if the wait would be longer than maxWaitNanos.
+     */
+    public long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = nextDue.get();
+            long due = Math.max(current, now - fullNanos); // tokens older than a full bucket are lost
+            long wait = Math.max(0, due - now);
+            if (wait > maxWaitNanos) {
+                rejected.increment();
+                return -1;
+            }
+            if (nextDue.compareAndSet(current, due + intervalNanos)) {
+                granted.increment();
+                if (wait > 0) {
+                    delayed.increment();
+                    waitedNanos.add(wait);
+                }
+                return wait;
+            }
+        }
+    }
+
+    // takes a permit only if one is free right now
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    // tokens in the bucket now, 0 if callers are already waiting
+    public int getAvailablePermits() {
+        long now = clock.getAsLong();
+        long due = Math.max(nextDue.get(), now - fullNanos);
+        return due > now ? 0 : (int) ((now - due) / intervalNanos) + 1;
+    }
+
+    public long getGranted() {
+        return granted.sum();
+    }
+
+    // permits that were granted only after a wait
+    public long getDelayed() {
+        return delayed.sum();
+    }
+
+    // requests turned away because the wait was longer than they could afford
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getWaitedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitedNanos.sum());
+    }
+
+    // one line of stats, for logging
+    public String describe() {
+        return String.format("rate limit: %d granted (%d after waiting %d ms in total), %d rejected, %d available",
+                getGranted(), getDelayed(), getWaitedMillis(), getRejected(), getAvailablePermits());
+    }
+}
@@ -0,0 +1,232 @@
+package weather;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Keeps a set of grid points fresh in a ForecastCache in the background, so
+ * looking one of them up is a cache hit.
+ *
+ * Each point is refetched a little before its cache entry expires. The expiry
+ * comes from ForecastCache: Cache-Control/Expires, or else updateTime plus one
+ * NWS update interval. Each refresh is moved a random amount earlier, so points
+ * fetched together don't all expire and refetch in the same second. Failed
+ * fetches are retried with growing delays. If a point was refreshed some other
+ * way (the user clicked it), the timer just waits for the new expiry.
+ *
+ * pause() stops all fetching (e.g. while the window is minimized); points that
+ * came due meanwhile are fetched, spread over a few seconds, on resume().
+ * Listeners are called on the fetching thread after every refresh.
+ */
+public class RefreshScheduler {
+    // called after a point was refreshed or failed to refresh; not on the FX thread
+    public interface Listener {
+        void refreshed(GridPoint point, Forecast forecast);
+
+        default void failed(GridPoint point, Throwable error) {
+        }
+    }
+
+    static final long MIN_DELAY_MILLIS = 30 * 1000;          // never refetch a point more often
+    static final long MAX_LEAD_MILLIS = 2 * 60 * 1000;       // refresh at most this long before expiry
+    static final long MAX_JITTER_MILLIS = 60 * 1000;
+    static final long MAX_RETRY_MILLIS = 10 * 60 * 1000;
+    static final long RESUME_SPREAD_MILLIS = 5 * 1000;       // due points are spread over this on start/resume
+
+    private final ForecastCache cache;
+    private final ScheduledExecutorService timer;
+    private final LongSupplier clock;
+    private final LongUnaryOperator jitter;                          // bound -> random in [0, bound)
+    private final Function<GridPoint, CompletableFuture<Forecast>> refresh;
+    private final Set<GridPoint> points = ConcurrentHashMap.newKeySet();
+    private final Map<GridPoint, ScheduledFuture<?>> scheduled = new ConcurrentHashMap<>();
+    private final Map<GridPoint, Long> expiryWhenScheduled = new ConcurrentHashMap<>();
+    private final Map<GridPoint, Integer> failures = new ConcurrentHashMap<>();
+    private final Set<GridPoint> due = ConcurrentHashMap.newKeySet();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+
+    // one timer thread is plenty: it only fires timers and starts fetches, which are asynchronous and
+    // never block it. (A virtual thread sleeping per point would work too, but buys nothing here
+    // and loses cancelling a timer through its ScheduledFuture.)
+    public RefreshScheduler(ForecastCache cache) {
+        this(cache, Executors.newSingleThreadScheduledExecutor(WeatherClient.daemonThreads("forecast-refresh")),
+                System::currentTimeMillis, RefreshScheduler::randomJitter, cache::refresh);
+    }
+
+    // with the timer, clock, jitter and fetch given, so tests can drive it; shutdown() shuts the timer down
+    RefreshScheduler(ForecastCache cache, ScheduledExecutorService timer, LongSupplier clock,
+                     LongUnaryOperator jitter, Function<GridPoint, CompletableFuture<Forecast>> refresh) {
+        this.cache = cache;
+        this.timer = timer;
+        this.clock = clock;
+        this.jitter = jitter;
+        this.refresh = refresh;
+    }
+
+    // keeps point fresh from now on; fetched right away (after a little jitter) if nothing fresh is cached
+    public void add(GridPoint point) {
+        if (points.add(point) && running) {
+            schedule(point, initialDelay(point));
+        }
+    }
+
+    public void remove(GridPoint point) {
+        points.remove(point);
+        due.remove(point);
+        failures.remove(point);
+        expiryWhenScheduled.remove(point);
+        ScheduledFuture<?> f = scheduled.remove(point);
+        if (f != null) {
+            f.cancel(false);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (GridPoint point : points) {
+            schedule(point, initialDelay(point));
+        }
+    }
+
+    // no fetches until resume(); timers that fire meanwhile only mark their point as due
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        if (!paused) {
+            return;
+        }
+        paused = false;
+        for (GridPoint point : due) {
+            due.remove(point);
+            if (points.contains(point)) {
+                schedule(point, jitter(RESUME_SPREAD_MILLIS));
+            }
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void shutdown() {
+        running = false;
+        timer.shutdownNow();
+    }
+
+    // how long to wait before fetching point again, 0 if it should be fetched now
+    long delayFor(GridPoint point, long now) {
+        long remaining = cache.getExpiresAt(point) - now;
+        if (remaining <= 0) {
+            return 0;
+        }
+        long lead = Math.min(MAX_LEAD_MILLIS, remaining / 5);
+        long early = jitter(Math.min(MAX_JITTER_MILLIS, remaining / 10));
+        return Math.max(0, remaining - lead - early);
+    }
+
+    // growing pause after repeated failures: 30s, 1m, 2m, ... up to MAX_RETRY_MILLIS, with jitter
+    long retryDelay(int failures) {
+        long base = MIN_DELAY_MILLIS << Math.min(failures - 1, 10);
+        long delay = Math.min(MAX_RETRY_MILLIS, base);
+        return delay / 2 + jitter(delay / 2);
+    }
+
+    private long initialDelay(GridPoint point) {
+        long delay = delayFor(point, clock.getAsLong());
+        return delay > 0 ? delay : jitter(RESUME_SPREAD_MILLIS);
+    }
+
+    private void schedule(GridPoint point, long delayMillis) {
+        if (!running) {
+            return;
+        }
+        expiryWhenScheduled.put(point, cache.getExpiresAt(point));
+        ScheduledFuture<?> next;
+        try {
+            next = timer.schedule(() -> run(point), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return; // shut down meanwhile
+        }
+        ScheduledFuture<?> old = scheduled.put(point, next);
+        if (old != null && old != next) {
+            old.cancel(false);
+        }
+    }
+
+    private void run(GridPoint point) {
+        if (!running || !points.contains(point)) {
+            return;
+        }
+        if (paused) {
+            due.add(point);
+            return;
+        }
+        Long expected = expiryWhenScheduled.get(point);
+        if (expected == null || cache.getExpiresAt(point) != expected) {
+            // refreshed some other way since this timer was set
+            long wait = delayFor(point, clock.getAsLong());
+            if (wait > 0) {
+                schedule(point, wait);
+                return;
+            }
+        }
+        refresh.apply(point).whenComplete((forecast, error) -> {
+            if (error == null) {
+                failures.remove(point);
+                for (Listener l : listeners) {
+                    try {
+                        l.refreshed(point, forecast);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+                schedule(point, Math.max(MIN_DELAY_MILLIS, delayFor(point, clock.getAsLong())));
+            } else {
+                int n = failures.merge(point, 1, Integer::sum);
+                for (Listener l : listeners) {
+                    try {
+                        l.failed(point, error);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+                schedule(point, retryDelay(n));
+            }
+        });
+    }
+
+    private long jitter(long bound) {
+        return bound <= 0 ? 0 : jitter.applyAsLong(bound);
+    }
+
+    private static long randomJitter(long bound) {
+        return ThreadLocalRandom.current().nextLong(bound);
+    }
+}
@@ -0,0 +1,400 @@
+package weather;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Retries requests that failed for a reason that may go away on its own:
+ * HTTP 429/500/502/503/504, a timeout or another I/O error such as a
+ * refused connection.
+ *
+ * The wait before retry n is a random time between 0 and
+ * min(maxDelay, baseDelay * 2^n) ("full jitter"), so clients that failed
+ * together don't all come back together. A Retry-After header from the
+ * server is honoured as the minimum wait. Every request has a deadline
+ * counted from its first attempt: each attempt's timeout is cut to the time
+ * left, and no retry is scheduled whose wait alone would run past it.
+ *
+ * Cancelling the returned future cancels the attempt in flight or the
+ * pending wait; nothing is sent after that.
+ *
+ * With a RateLimiter set, every attempt takes a permit first and waits for
+ * it if the bucket is empty. With a CircuitBreaker set, every attempt asks
+ * it first and reports its outcome; while it is open requests fail right
+ * away with CircuitBreaker.OpenException, which is never retried.
+ *
+ * The shared policy can be configured with system properties:
+ *   weather.retry.maxAttempts   (default 4, 1 = no retries)
+ *   weather.retry.baseDelayMs   (default 250)
+ *   weather.retry.maxDelayMs    (default 8000)
+ *   weather.retry.deadlineMs    (default 30000)
+ */
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long deadlineMillis;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder retriedRequests = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+    private final LatencyHistogram addedLatency = new LatencyHistogram();
+    // kept apart because a retry can add under a millisecond, which lands in the same bucket as no retry
+    private final LatencyHistogram retriedLatency = new LatencyHistogram();
+    private volatile RateLimiter rateLimiter;
+    private volatile CircuitBreaker circuitBreaker;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, long deadlineMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    // the policy with the limits from the weather.retry.* system properties
+    public static RetryPolicy fromSystemProperties() {
+        return new RetryPolicy(
+                Integer.getInteger("weather.retry.maxAttempts", 4),
+                Long.getLong("weather.retry.baseDelayMs", 250),
+                Long.getLong("weather.retry.maxDelayMs", 8000),
+                Long.getLong("weather.retry.deadlineMs", 30000));
+    }
+
+    // null turns rate limiting off
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    // null turns the circuit breaker off
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Sends the request built by requestFor (given the timeout for that attempt)
+     * until a response comes back that is not worth retrying, or attempts or
+     * time run out. Completes with that last response, whatever its status, or
+     * exceptionally if the last attempt failed without one.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpClient http, Function<Duration, HttpRequest> requestFor,
+                                                       HttpResponse.BodyHandler<T> handler, Duration attemptTimeout) {
+        requests.increment();
+        Attempts<T> attempts = new Attempts<>(http, requestFor, handler, attemptTimeout);
+        attempts.next();
+        return attempts.result;
+    }
+
+    // state of one request across its attempts
+    private class Attempts<T> {
+        final HttpClient http;
+        final Function<Duration, HttpRequest> requestFor;
+        final HttpResponse.BodyHandler<T> handler;
+        final Duration attemptTimeout;
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        final CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        volatile CompletableFuture<?> current;   // attempt or wait in progress, cancelled with result
+        long firstAttemptStart;                  // after any rate limit wait; only touched by one attempt at a time
+        long lastAttemptStart;
+        int attempt = 0;
+        boolean permitHeld;                      // waited for a rate limiter permit already
+        CircuitBreaker breaker;                  // the breaker the attempt in flight reports to
+        CircuitBreaker.Permit permit;            // what it let the attempt through with
+
+        Attempts(HttpClient http, Function<Duration, HttpRequest> requestFor,
+                 HttpResponse.BodyHandler<T> handler, Duration attemptTimeout) {
+            this.http = http;
+            this.requestFor = requestFor;
+            this.handler = handler;
+            this.attemptTimeout = attemptTimeout;
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    CompletableFuture<?> c = current;
+                    if (c != null) {
+                        c.cancel(true);
+                    }
+                }
+            });
+        }
+
+        void next() {
+            if (result.isDone()) {
+                return; // cancelled while waiting
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                finish(null, new HttpTimeoutException("Request deadline of " + deadlineMillis + " ms exceeded"));
+                return;
+            }
+            RateLimiter limiter = rateLimiter;
+            if (limiter != null && !permitHeld) {
+                long wait = limiter.reserve(remaining);
+                if (wait < 0) {
+                    finish(null, new HttpTimeoutException("Rate limit wait would pass the request deadline"));
+                    return;
+                }
+                if (wait > 0) {
+                    permitHeld = true;
+                    current = CompletableFuture.runAsync(this::next,
+                            CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS));
+                    return;
+                }
+            }
+            permitHeld = false;
+            breaker = circuitBreaker;
+            permit = breaker == null ? null : breaker.allowRequest();
+            if (breaker != null && permit == null) {
+                finish(null, new CircuitBreaker.OpenException("Circuit breaker is open, not calling the API"));
+                return;
+            }
+            remaining = deadline - System.nanoTime();
+            attempt++;
+            lastAttemptStart = System.nanoTime();
+            if (attempt == 1) {
+                firstAttemptStart = lastAttemptStart;
+            }
+            Duration timeout = attemptTimeout == null ? Duration.ofNanos(remaining)
+                    : Duration.ofNanos(Math.min(remaining, attemptTimeout.toNanos()));
+            CompletableFuture<HttpResponse<T>> sent;
+            try {
+                sent = http.sendAsync(requestFor.apply(timeout), handler);
+            } catch (RuntimeException e) {
+                if (breaker != null) {
+                    breaker.abandon(permit);
+                }
+                finish(null, e);
+                return;
+            }
+            current = sent;
+            if (result.isCancelled()) {
+                sent.cancel(true);
+                return;
+            }
+            sent.whenComplete(this::completed);
+        }
+
+        void completed(HttpResponse<T> response, Throwable error) {
+            Throwable cause = unwrap(error);
+            if (breaker != null) {
+                if (cause instanceof CancellationException) {
+                    breaker.abandon(permit);
+                } else {
+                    // 4xx other than 429 is our problem, not an upstream failure
+                    breaker.record(permit, response != null ? !isRetryableStatus(response.statusCode()) : !isRetryable(cause));
+                }
+            }
+            if (result.isDone() || cause instanceof CancellationException) {
+                discard(response);
+                return;
+            }
+            boolean retryable = response != null ? isRetryableStatus(response.statusCode()) : isRetryable(cause);
+            if (!retryable || attempt >= maxAttempts) {
+                finish(response, cause);
+                return;
+            }
+            long wait = backoffMillis(attempt);
+            if (response != null) {
+                wait = Math.max(wait, retryAfterMillis(response, System.currentTimeMillis()));
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (wait >= remaining) {
+                finish(response, cause); // the retry could not finish in time
+                return;
+            }
+            discard(response);
+            retries.increment();
+            if (attempt == 1) {
+                retriedRequests.increment();
+            }
+            current = CompletableFuture.runAsync(this::next,
+                    CompletableFuture.delayedExecutor(wait, TimeUnit.MILLISECONDS));
+        }
+
+        void finish(HttpResponse<T> response, Throwable error) {
+            boolean failed = error != null || (response != null && isRetryableStatus(response.statusCode()));
+            if (failed && attempt > 1) {
+                gaveUp.increment();
+            }
+            long added = attempt <= 1 ? 0 : TimeUnit.NANOSECONDS.toMillis(lastAttemptStart - firstAttemptStart);
+            addedLatency.record(added);
+            if (attempt > 1) {
+                retriedLatency.record(added);
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else if (!result.complete(response)) {
+                discard(response);
+            }
+        }
+    }
+
+    // random wait in [0, min(maxDelay, baseDelay * 2^(attempt-1))]
+    long backoffMillis(int attempt) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    static boolean isRetryableStatus(int status) {
+        return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    // I/O failures: timeouts, refused or reset connections; not bugs like a malformed request
+    static boolean isRetryable(Throwable error) {
+        return error instanceof IOException;
+    }
+
+    // Retry-After as delta-seconds or an HTTP date, in millis from now; 0 if absent or unusable
+    static long retryAfterMillis(HttpResponse<?> response, long now) {
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (value == null) {
+            return 0;
+        }
+        value = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            // not a number, try a date
+        }
+        try {
+            long at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - now);
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // releases the connection behind a response nobody will read
+    private static void discard(HttpResponse<?> response) {
+        if (response != null && response.body() instanceof Closeable) {
+            try {
+                ((Closeable) response.body()).close();
+            } catch (IOException e) {
+                // nothing left to do with it
+            }
+        }
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    // requests that needed at least one retry
+    public long getRetriedRequests() {
+        return retriedRequests.sum();
+    }
+
+    // retries sent, over all requests
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    // requests that were retried and still failed
+    public long getGaveUp() {
+        return gaveUp.sum();
+    }
+
+    // time retries added to a request (failed attempts plus waits), in millis, at percentile p (0..100);
+    // over all requests, or only over the retried ones
+    public long getAddedLatencyPercentile(double p, boolean retriedOnly) {
+        return (retriedOnly ? retriedLatency : addedLatency).percentile(p);
+    }
+
+    // one line of stats, for logging
+    public String describe() {
+        return String.format("retries: %d requests, %d retried (%d retries, %d gave up); added latency p50=%d ms p99=%d ms,"
+                        + " retried only p50=%d ms p99=%d ms",
+                getRequests(), getRetriedRequests(), getRetries(), getGaveUp(),
+                getAddedLatencyPercentile(50, false), getAddedLatencyPercentile(99, false),
+                getAddedLatencyPercentile(50, true), getAddedLatencyPercentile(99, true));
+    }
+
+    /**
+     * Lock-free histogram of millisecond values. Bucket 0 holds exact zeros,
+     * the rest grow by a quarter power of two, so a percentile is accurate to
+     * within about 19% and 80 buckets reach past an hour.
+     */
+    static final class LatencyHistogram {
+        private static final int BUCKETS = 4 * 22 + 1;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long millis) {
+            counts.incrementAndGet(bucket(millis));
+        }
+
+        // upper bound of the bucket holding the p-th percentile; 0 if nothing was recorded
+        long percentile(double p) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += counts.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+
+        static int bucket(long millis) {
+            if (millis <= 0) {
+                return 0;
+            }
+            // 4 * log2(millis + 1), rounded up
+            int i = (int) Math.ceil(4 * Math.log(millis + 1) / Math.log(2));
+            return Math.min(BUCKETS - 1, Math.max(1, i));
+        }
+
+        static long upperBound(int bucket) {
+            return bucket == 0 ? 0 : (long) Math.floor(Math.pow(2, bucket / 4.0)) - 1;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package weather;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe dictionary of repeated strings.
+ * The API repeats the same few texts ("Mostly Sunny", "F", "wmoUnit:percent",
+ * icon URLs, ...) in every period of every grid point. intern() returns one
+ * shared instance per distinct text, so forecasts kept in memory hold the
+ * text once instead of once per period. The fresh copy the parser made
+ * becomes garbage right away.
+ *
+ * Entries are never evicted. Once maxEntries distinct strings are stored,
+ * new strings are returned as they are, so an unusual response can't grow
+ * the dictionary without limit.
+ *
+ * Lookups are lock-free; only adding a new string takes the lock, and once
+ * the dictionary is full not even that.
+ */
+public class StringDictionary {
+    private static final StringDictionary SHARED =
+            new StringDictionary(Integer.getInteger("weather.dictionarySize", 4096));
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, String> entries = new ConcurrentHashMap<>();
+    private int size = 0;             // guarded by this
+    private volatile boolean full;    // set once size reaches maxEntries; misses then skip the lock
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // maxEntries of 0 turns the dictionary off: intern() returns its argument
+    public StringDictionary(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    // the dictionary the Period setters use; -Dweather.dictionarySize sets its bound (default 4096, 0 = off)
+    public static StringDictionary getShared() {
+        return SHARED;
+    }
+
+    // the shared instance equal to s, or s itself if the dictionary is full; null stays null
+    public String intern(String s) {
+        if (s == null || maxEntries == 0) {
+            return s;
+        }
+        String shared = entries.get(s);
+        if (shared != null) {
+            hits.increment();
+            return shared;
+        }
+        misses.increment();
+        if (full) {
+            rejected.increment();
+            return s;
+        }
+        return add(s);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // strings handed back uncanonicalized because the dictionary was full
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    // share of lookups that found an existing entry, 0 if there were none
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    // one line of stats, for logging
+    public String describe() {
+        return String.format("strings: %d/%d, hit rate %.1f%% (%d hits, %d misses, %d rejected)",
+                size(), maxEntries, getHitRate() * 100, getHits(), getMisses(), getRejected());
+    }
+
+    private synchronized String add(String s) {
+        String shared = entries.get(s);
+        if (shared != null) {
+            return shared; // another thread added it first
+        }
+        if (size >= maxEntries) {
+            rejected.increment();
+            return s;
+        }
+        entries.put(s, s);
+        if (++size == maxEntries) {
+            full = true;
+        }
+        return s;
+    }
+}
@@ -1,40 +1,232 @@
 package weather;
 
-import java.net.URI;
-import java.net.http.HttpClient;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper; // version 2.11.1
+import com.fasterxml.jackson.databind.ObjectReader;
 
 
 public class WeatherAPI {
+    // one mapper for the whole app; ObjectMapper/ObjectReader are thread-safe once configured,
+    // and reusing them keeps Jackson's (de)serializer caches for Root, Period, ... warm
+    static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader ROOT_READER = MAPPER.readerFor(Root.class);
+    private static final ForecastValidators VALIDATORS = new ForecastValidators();
+    private static final RetryPolicy RETRY = RetryPolicy.fromSystemProperties();
+    private static final ContentDecoder DECODER = new ContentDecoder();
+
+    static {
+        // one bucket and one breaker for every request to the API, whoever sends it
+        RETRY.setRateLimiter(RateLimiter.fromSystemProperties());
+        RETRY.setCircuitBreaker(CircuitBreaker.fromSystemProperties());
+    }
+
+    // small document touching every model class, parsed once by warmUp()
+    private static final String WARM_UP_JSON = "{\"type\":\"Feature\","
+            + "\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[[-87.6,41.8],[-87.6,41.9]]]},"
+            + "\"properties\":{\"units\":\"us\",\"generatedAt\":\"2025-01-01T00:00:00+00:00\","
+            + "\"updateTime\":\"2025-01-01T00:00:00+00:00\",\"elevation\":{\"unitCode\":\"wmoUnit:m\",\"value\":1.0},"
+            + "\"periods\":[{\"number\":1,\"name\":\"Today\",\"startTime\":\"2025-01-01T06:00:00-06:00\","
+            + "\"endTime\":\"2025-01-01T18:00:00-06:00\",\"isDaytime\":true,\"temperature\":1,\"temperatureUnit\":\"F\","
+            + "\"probabilityOfPrecipitation\":{\"unitCode\":\"wmoUnit:percent\",\"value\":null},"
+            + "\"windSpeed\":\"5 mph\",\"windDirection\":\"N\",\"shortForecast\":\"Sunny\"}]}}";
+
+    // blocking version, kept for existing callers; waits on the async request
     public static ArrayList<Period> getForecast(String region, int gridx, int gridy) {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.weather.gov/gridpoints/"+region+"/"+String.valueOf(gridx)+","+String.valueOf(gridy)+"/forecast"))
-                //.method("GET", HttpRequest.BodyPublishers.noBody())
-                .build();
-        HttpResponse<String> response = null;
         try {
-            response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (Exception e) {
-            e.printStackTrace();
+            return getForecastAsync(region, gridx, gridy, Runnable::run).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        }
+        return null;
+    }
+
+    public static CompletableFuture<ArrayList<Period>> getForecastAsync(String region, int gridx, int gridy) {
+        return getForecastAsync(region, gridx, gridy, ForkJoinPool.commonPool());
+    }
+
+    // sends the request without blocking and parses the body on the given executor.
+    // cancelling the returned future also cancels the HTTP exchange, so a stale
+    // request can be dropped when the user picks another city.
+    public static CompletableFuture<ArrayList<Period>> getForecastAsync(String region, int gridx, int gridy, Executor executor) {
+        CompletableFuture<Forecast> fetch = fetchForecastAsync(region, gridx, gridy, executor);
+        return cancelsUpstream(fetch.thenApply(forecast -> forecast.periods), fetch);
+    }
+
+    // like getForecastAsync but keeps the forecast timestamps as well as the periods.
+    // the body is streamed (and decompressed, if the server compressed it) straight into
+    // ForecastParser, never copied into a String
+    public static CompletableFuture<Forecast> fetchForecastAsync(String region, int gridx, int gridy, Executor executor) {
+        GridPoint point = new GridPoint(region, gridx, gridy);
+        WeatherClient client = WeatherClient.getShared();
+        HttpRequest.Builder builder = client.newRequest(forecastPath(region, gridx, gridy));
+        ForecastValidators.Entry conditions = VALIDATORS.addConditions(point, builder);
+        CompletableFuture<HttpResponse<InputStream>> sent = RETRY.send(client.getHttpClient(),
+                timeout -> builder.timeout(timeout).build(), HttpResponse.BodyHandlers.ofInputStream(),
+                client.getRequestTimeout());
+        CompletableFuture<Forecast> result = sent.thenApplyAsync(response -> {
+            try (InputStream body = response.body()) {
+                long expiresAt = expiresAt(response.headers(), System.currentTimeMillis());
+                if (response.statusCode() == 304) {
+                    Forecast previous = VALIDATORS.notModified(conditions, expiresAt);
+                    if (previous == null) {
+                        throw new IllegalStateException("Forecast request for " + point
+                                + " was not conditional but got 304 Not Modified");
+                    }
+                    return previous;
+                }
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Forecast request failed with HTTP " + response.statusCode());
+                }
+                Forecast forecast;
+                try (InputStream decoded = DECODER.decode(body, response.headers())) {
+                    forecast = ForecastParser.parse(decoded);
+                }
+                forecast.expiresAt = expiresAt;
+                VALIDATORS.storeFull(point, response.headers(), forecast);
+                return forecast;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to parse JSon", e);
+            }
+        }, executor);
+        return cancelsUpstream(result, sent);
+    }
+
+    public static CompletableFuture<HourlySeries> getHourlyAsync(String region, int gridx, int gridy) {
+        return fetchHourlyAsync(region, gridx, gridy, ForkJoinPool.commonPool());
+    }
+
+    // /forecast/hourly for one grid point, decoded into columns (no Period objects);
+    // these requests are not conditional, the validators only cover /forecast
+    public static CompletableFuture<HourlySeries> fetchHourlyAsync(String region, int gridx, int gridy, Executor executor) {
+        WeatherClient client = WeatherClient.getShared();
+        HttpRequest.Builder builder = client.newRequest(hourlyPath(region, gridx, gridy));
+        CompletableFuture<HttpResponse<InputStream>> sent = RETRY.send(client.getHttpClient(),
+                timeout -> builder.timeout(timeout).build(), HttpResponse.BodyHandlers.ofInputStream(),
+                client.getRequestTimeout());
+        CompletableFuture<HourlySeries> result = sent.thenApplyAsync(response -> {
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Hourly forecast request failed with HTTP " + response.statusCode());
+                }
+                HourlySeries series;
+                try (InputStream decoded = DECODER.decode(body, response.headers())) {
+                    series = ForecastParser.parseHourly(decoded);
+                }
+                series.expiresAt = expiresAt(response.headers(), System.currentTimeMillis());
+                return series;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to parse JSon", e);
+            }
+        }, executor);
+        return cancelsUpstream(result, sent);
+    }
+
+    // points every request at another server, e.g. a local stub: "http://localhost:8080".
+    // validators from the old server are dropped, its ETags mean nothing to the new one
+    public static void setBaseUrl(String baseUrl) {
+        WeatherClient.setShared(WeatherClient.create(baseUrl));
+        VALIDATORS.clear();
+    }
+
+    public static String getBaseUrl() {
+        return WeatherClient.getShared().getBaseUrl();
+    }
+
+    // retry limits and how much latency retries have added
+    public static RetryPolicy getRetryPolicy() {
+        return RETRY;
+    }
+
+    // shared token bucket, null if -Dweather.rateLimit.perSecond=0
+    public static RateLimiter getRateLimiter() {
+        return RETRY.getRateLimiter();
+    }
+
+    public static CircuitBreaker getCircuitBreaker() {
+        return RETRY.getCircuitBreaker();
+    }
+
+    // bytes received vs bytes parsed, and how many responses came compressed
+    public static ContentDecoder getContentDecoder() {
+        return DECODER;
+    }
+
+    // ETag/Last-Modified per grid point plus 200 vs 304 counters
+    public static ForecastValidators getValidators() {
+        return VALIDATORS;
+    }
+
+    // cancelling a dependent future does not reach the stage it came from, so forward it
+    static <T> CompletableFuture<T> cancelsUpstream(CompletableFuture<T> result, CompletableFuture<?> upstream) {
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                upstream.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // expiry in epoch millis from Cache-Control max-age, or else the Expires header; Forecast.EXPIRES_UNKNOWN
+    // if neither is there. no-cache/no-store and an unparseable Expires count as already expired (now)
+    static long expiresAt(HttpHeaders headers, long now) {
+        for (String value : headers.allValues("Cache-Control")) {
+            for (String directive : value.split(",")) {
+                String d = directive.trim().toLowerCase();
+                if (d.equals("no-cache") || d.equals("no-store")) {
+                    return now;
+                }
+                if (d.startsWith("max-age=")) {
+                    try {
+                        return now + Long.parseLong(d.substring(8).trim()) * 1000;
+                    } catch (NumberFormatException e) {
+                        // fall through to Expires
+                    }
+                }
+            }
         }
-        Root r = getObject(response.body());
-        if(r == null){
-            System.err.println("Failed to parse JSon");
-            return null;
+        Optional<String> expires = headers.firstValue("Expires");
+        if (expires.isPresent()) {
+            try {
+                return ZonedDateTime.parse(expires.get(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return now;
+            }
         }
-        return r.properties.periods;
+        return Forecast.EXPIRES_UNKNOWN;
+    }
+
+    static String forecastPath(String region, int gridx, int gridy) {
+        return "/gridpoints/"+region+"/"+String.valueOf(gridx)+","+String.valueOf(gridy)+"/forecast";
+    }
+
+    static String hourlyPath(String region, int gridx, int gridy) {
+        return forecastPath(region, gridx, gridy) + "/hourly";
     }
+
     public static Root getObject(String json){
-        ObjectMapper om = new ObjectMapper();
         Root toRet = null;
         try {
-            toRet = om.readValue(json, Root.class);
-            ArrayList<Period> p = toRet.properties.periods;
+            toRet = ROOT_READER.readValue(json);
 
         } catch (JsonProcessingException e) {
             e.printStackTrace();
@@ -42,7 +234,12 @@ public class WeatherAPI {
         return toRet;
 
     }
-}
 
+    // builds Jackson's deserializers for the model classes ahead of time so the first
+    // real forecast parse isn't the cold one; safe to call more than once
+    public static void warmUp() {
+        getObject(WARM_UP_JSON);
+    }
+}
 
 
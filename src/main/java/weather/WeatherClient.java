@@ -0,0 +1,149 @@
+package weather;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived HTTP client used by WeatherAPI.
+ * One instance keeps its connection pool, TLS sessions and HTTP/2
+ * connections alive between calls, so switching cities does not pay a new
+ * handshake every time.
+ *
+ * The shared instance can be configured with system properties:
+ *   weather.baseUrl            (default https://api.weather.gov)
+ *   weather.connectTimeoutMs   (default 5000)
+ *   weather.requestTimeoutMs   (default 15000)
+ */
+public class WeatherClient {
+    public static final String DEFAULT_BASE_URL = "https://api.weather.gov";
+
+    private static volatile WeatherClient shared;
+    private static volatile boolean hookInstalled = false;
+
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final ExecutorService executor;
+    private final HttpClient http;
+
+    public WeatherClient(String baseUrl, Duration connectTimeout, Duration requestTimeout) {
+        this.baseUrl = stripTrailingSlash(baseUrl);
+        this.requestTimeout = requestTimeout;
+        this.executor = Executors.newCachedThreadPool(daemonThreads("weather-http"));
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    // returns the client every WeatherAPI call goes through, creating it on first use
+    public static WeatherClient getShared() {
+        WeatherClient c = shared;
+        if (c == null) {
+            synchronized (WeatherClient.class) {
+                c = shared;
+                if (c == null) {
+                    c = create(System.getProperty("weather.baseUrl", DEFAULT_BASE_URL));
+                    shared = c;
+                    installShutdownHook();
+                }
+            }
+        }
+        return c;
+    }
+
+    // a client for baseUrl with the timeouts from the system properties
+    public static WeatherClient create(String baseUrl) {
+        return new WeatherClient(baseUrl,
+                Duration.ofMillis(Long.getLong("weather.connectTimeoutMs", 5000)),
+                Duration.ofMillis(Long.getLong("weather.requestTimeoutMs", 15000)));
+    }
+
+    // swaps the shared client (e.g. to point tests at a local stub server); the old one is shut down
+    public static void setShared(WeatherClient client) {
+        WeatherClient old;
+        synchronized (WeatherClient.class) {
+            old = shared;
+            shared = client;
+            installShutdownHook();
+        }
+        if (old != null && old != client) {
+            old.shutdown();
+        }
+    }
+
+    // shuts down the shared client if one was created
+    public static void shutdownShared() {
+        WeatherClient old;
+        synchronized (WeatherClient.class) {
+            old = shared;
+            shared = null;
+        }
+        if (old != null) {
+            old.shutdown();
+        }
+    }
+
+    public HttpClient getHttpClient() {
+        return http;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    // request builder for a path below the base url, with the request timeout already applied;
+    // asks for a compressed body, so the response must be read through ContentDecoder
+    public HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/geo+json")
+                .header("Accept-Encoding", ContentDecoder.ACCEPT_ENCODING);
+    }
+
+    // closes the client's connections and stops its selector and worker threads;
+    // in-flight requests fail with an IOException
+    public void shutdown() {
+        http.shutdownNow();
+        executor.shutdownNow();
+        try {
+            http.awaitTermination(Duration.ofSeconds(1));
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void installShutdownHook() {
+        if (!hookInstalled) {
+            hookInstalled = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(WeatherClient::shutdownShared, "weather-http-shutdown"));
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package weather;
+
+/**
+ * The 16 compass points the API uses for windDirection, with the bearing
+ * (degrees clockwise from north) the wind blows from.
+ */
+public enum WindDirection {
+    N(0), NNE(22.5f), NE(45), ENE(67.5f),
+    E(90), ESE(112.5f), SE(135), SSE(157.5f),
+    S(180), SSW(202.5f), SW(225), WSW(247.5f),
+    W(270), WNW(292.5f), NW(315), NNW(337.5f);
+
+    public final float degrees;
+
+    WindDirection(float degrees) {
+        this.degrees = degrees;
+    }
+
+    // the direction for an API value such as "NNW", or null if it isn't a compass point.
+    // a switch on the string only uses its cached hash, so this allocates nothing
+    public static WindDirection parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        switch (text) {
+            case "N": return N;
+            case "NNE": return NNE;
+            case "NE": return NE;
+            case "ENE": return ENE;
+            case "E": return E;
+            case "ESE": return ESE;
+            case "SE": return SE;
+            case "SSE": return SSE;
+            case "S": return S;
+            case "SSW": return SSW;
+            case "SW": return SW;
+            case "WSW": return WSW;
+            case "W": return W;
+            case "WNW": return WNW;
+            case "NW": return NW;
+            case "NNW": return NNW;
+            default: return null;
+        }
+    }
+}
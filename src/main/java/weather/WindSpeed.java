@@ -0,0 +1,85 @@
+package weather;
+
+/**
+ * Reads the numbers out of the API's windSpeed text ("5 mph", "10 to 15 mph",
+ * "20 to 30 km/h") without creating any objects. The unit is whatever the
+ * request asked for (mph for the default US units) and is not converted.
+ *
+ * The result of parse() packs both speeds into one long so a caller gets
+ * min and max from a single pass; use min() and max() to unpack it.
+ */
+public final class WindSpeed {
+    // what min()/max() return when the text has no number
+    public static final int UNKNOWN = -1;
+
+    private WindSpeed() {
+    }
+
+    // "10 to 15 mph" gives min 10, max 15; "5 mph" gives 5 for both.
+    // a number too long for an int makes both UNKNOWN rather than wrapping around
+    public static long parse(CharSequence text) {
+        if (text == null) {
+            return pack(UNKNOWN, UNKNOWN);
+        }
+        int n = text.length();
+        int i = skipTo(text, 0, n);
+        if (i == n) {
+            return pack(UNKNOWN, UNKNOWN);
+        }
+        int min = 0;
+        while (i < n && isDigit(text.charAt(i))) {
+            min = digit(min, text.charAt(i++));
+        }
+        if (min == UNKNOWN) {
+            return pack(UNKNOWN, UNKNOWN);
+        }
+        // a second number only counts as the upper bound when it follows "to"
+        int j = i;
+        while (j < n && text.charAt(j) == ' ') {
+            j++;
+        }
+        if (j + 2 < n && text.charAt(j) == 't' && text.charAt(j + 1) == 'o' && text.charAt(j + 2) == ' ') {
+            j = skipTo(text, j + 3, n);
+            if (j < n) {
+                int max = 0;
+                while (j < n && isDigit(text.charAt(j))) {
+                    max = digit(max, text.charAt(j++));
+                }
+                return max == UNKNOWN ? pack(UNKNOWN, UNKNOWN) : pack(min, Math.max(min, max));
+            }
+        }
+        return pack(min, min);
+    }
+
+    public static int min(long range) {
+        return (int) (range >> 32);
+    }
+
+    public static int max(long range) {
+        return (int) range;
+    }
+
+    private static long pack(int min, int max) {
+        return ((long) min << 32) | (max & 0xffffffffL);
+    }
+
+    // value * 10 + the digit, or UNKNOWN once the number no longer fits an int (and stays so)
+    private static int digit(int value, char c) {
+        if (value == UNKNOWN || value > (Integer.MAX_VALUE - (c - '0')) / 10) {
+            return UNKNOWN;
+        }
+        return value * 10 + (c - '0');
+    }
+
+    // index of the next digit at or after i, or n if there is none
+    private static int skipTo(CharSequence text, int i, int n) {
+        while (i < n && !isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
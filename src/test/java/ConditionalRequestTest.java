@@ -0,0 +1,98 @@
+// JUnit
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Custom weather classes
+import weather.Forecast;                  // Result of one fetch
+import weather.ForecastValidators;        // 200 vs 304 counters
+import weather.WeatherAPI;                // Client path under test
+
+// Java utilities
+import com.sun.net.httpserver.HttpServer; // Server that only answers 304
+import java.net.InetAddress;              // Loopback address
+import java.net.InetSocketAddress;        // Server address
+import java.util.concurrent.CompletionException; // Wraps the failure of a fetch
+import java.util.concurrent.ForkJoinPool; // Parse executor
+
+/**
+ * Conditional Request Test
+ * Purpose: checks the 304 Not Modified path of WeatherAPI.fetchForecastAsync end to end
+ * Process:
+ * - Points WeatherAPI at NwsStubServer, which answers If-None-Match with 304 when the ETag matches
+ * - Fetches a grid point twice: the first response is a full 200, the second request carries the
+ *   ETag and gets a 304 answered from the stored periods
+ * - Points WeatherAPI at a server that answers 304 to everything, which must fail the fetch
+ */
+class ConditionalRequestTest {
+  private NwsStubServer stub;
+  private ForecastValidators validators;
+
+  @BeforeEach
+  void start() throws Exception {
+    stub = new NwsStubServer(0).start();
+    WeatherAPI.setBaseUrl(stub.getBaseUrl()); // also forgets earlier validators
+    validators = WeatherAPI.getValidators();
+  }
+
+  @AfterEach
+  void stop() {
+    stub.stop();
+  }
+
+  @Test
+  void secondFetchIsConditionalAndReusesThePeriods() {
+    long full = validators.getFullResponses();
+    long notModified = validators.getNotModifiedResponses();
+
+    Forecast first = fetch();
+    assertEquals(0, stub.getConditionalRequests());
+    Forecast second = fetch();
+
+    assertEquals(1, stub.getConditionalRequests(), "the second request carries If-None-Match");
+    assertEquals(1, stub.getCount(200));
+    assertEquals(1, stub.getCount(304));
+    assertEquals(full + 1, validators.getFullResponses());
+    assertEquals(notModified + 1, validators.getNotModifiedResponses());
+    assertEquals(14, second.periods.size());
+    assertSame(first.periods.get(0), second.periods.get(0), "the 304 is not parsed again");
+    assertNotSame(first.periods, second.periods);
+    assertEquals(first.updateTime, second.updateTime);
+  }
+
+  @Test
+  void serverIgnoringTheEtagSendsItInFull() {
+    stub.setConditionalEnabled(false);
+    fetch();
+    fetch();
+    assertEquals(1, stub.getConditionalRequests());
+    assertEquals(2, stub.getCount(200));
+    assertEquals(0, stub.getCount(304));
+  }
+
+  @Test
+  void notModifiedWithNothingStoredFails() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", exchange -> {
+      exchange.sendResponseHeaders(304, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      WeatherAPI.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+      long notModified = WeatherAPI.getValidators().getNotModifiedResponses();
+      CompletionException e = assertThrows(CompletionException.class, this::fetch);
+      assertInstanceOf(IllegalStateException.class, e.getCause());
+      assertTrue(e.getCause().getMessage().contains("304"), e.getCause().getMessage());
+      assertEquals(notModified, WeatherAPI.getValidators().getNotModifiedResponses());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private Forecast fetch() {
+    return WeatherAPI.fetchForecastAsync("LOT", 77, 70, ForkJoinPool.commonPool()).join();
+  }
+}
@@ -0,0 +1,117 @@
+// Custom weather classes
+import weather.Forecast;                  // Result of one fetch
+import weather.ForecastCache;             // Cache path under test
+import weather.GridPoint;                 // Region + grid coordinates
+import weather.WeatherAPI;                // Client path under test
+
+// Java utilities
+import java.util.Arrays;                  // Sorting latencies for percentiles
+import java.util.concurrent.CompletableFuture; // Async fetches
+import java.util.concurrent.CountDownLatch;    // Waits for every request
+import java.util.concurrent.ForkJoinPool;      // Cache executor
+import java.util.concurrent.Semaphore;         // Caps requests in flight
+import java.util.concurrent.atomic.AtomicInteger; // Failure count
+import java.util.concurrent.atomic.AtomicReference; // First failure, for the report
+
+/**
+ * Forecast Load Benchmark
+ * Purpose: drives the real client end to end against NwsStubServer, with no network
+ * Process:
+ * - Starts the stub on a free port with the given latency and fault rates and points
+ *   WeatherAPI at it
+ * - Sends the requested number of forecast fetches, at most `concurrency` in flight, spread
+ *   round-robin over `points` grid points
+ * - Prints latency percentiles, throughput, failures, what the stub answered and how much
+ *   latency retries added
+ * Modes (first argument):
+ * - client: WeatherAPI.fetchForecastAsync for every request (conditional after the first per point)
+ * - cache: ForecastCache.get, so fresh points are hits and concurrent misses share one fetch
+ * Usage: java ... ForecastLoadBenchmark [client|cache] [requests] [concurrency] [latencyMs]
+ *        [errorRate] [throttleRate] [points]
+ *        The app's rate limit is off unless -Dweather.rateLimit.perSecond is given.
+ */
+public class ForecastLoadBenchmark {
+  public static void main(String[] args) throws Exception {
+    String mode = args.length > 0 ? args[0] : "client";
+    int requests = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+    long latency = args.length > 3 ? Long.parseLong(args[3]) : 20;
+    double errorRate = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+    double throttleRate = args.length > 5 ? Double.parseDouble(args[5]) : 0;
+    int points = args.length > 6 ? Integer.parseInt(args[6]) : 50;
+    if (System.getProperty("weather.rateLimit.perSecond") == null) {
+      System.setProperty("weather.rateLimit.perSecond", "0"); // measure the stub, not the app's rate limit
+    }
+
+    NwsStubServer stub = new NwsStubServer(0)
+        .setLatency(latency / 2, latency * 3 / 2)
+        .setErrorRate(errorRate)
+        .setThrottleRate(throttleRate)
+        .start();
+    WeatherAPI.setBaseUrl(stub.getBaseUrl());
+    ForecastCache cache = new ForecastCache(points, 10 * 60 * 1000, ForkJoinPool.commonPool());
+    try {
+      run(mode, cache, Math.min(requests, 200), concurrency, points, false); // warm-up
+      stub.resetCounts();
+      run(mode, cache, requests, concurrency, points, true);
+      System.out.println(stub.describe());
+      System.out.printf("validators: %d full, %d not modified; cache: %d hits, %d misses%n",
+          WeatherAPI.getValidators().getFullResponses(), WeatherAPI.getValidators().getNotModifiedResponses(),
+          cache.getHits(), cache.getMisses());
+      System.out.println(WeatherAPI.getRetryPolicy().describe());
+      System.out.println(WeatherAPI.getContentDecoder().describe());
+      if (WeatherAPI.getRateLimiter() != null) {
+        System.out.println(WeatherAPI.getRateLimiter().describe());
+      }
+      System.out.println(WeatherAPI.getCircuitBreaker().describe() + "; stale forecasts served: " + cache.getStaleServed());
+    } finally {
+      stub.stop();
+    }
+  }
+
+  private static void run(String mode, ForecastCache cache, int requests, int concurrency, int points,
+                          boolean report) throws InterruptedException {
+    long[] latencies = new long[requests];
+    AtomicInteger failures = new AtomicInteger();
+    AtomicReference<Throwable> firstError = new AtomicReference<>();
+    Semaphore inFlight = new Semaphore(concurrency);
+    CountDownLatch done = new CountDownLatch(requests);
+    long start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      int index = i;
+      GridPoint point = new GridPoint("LOT", 1 + i % points, 1);
+      inFlight.acquire();
+      long sent = System.nanoTime();
+      CompletableFuture<Forecast> fetch = mode.equals("cache")
+          ? cache.get(point)
+          : WeatherAPI.fetchForecastAsync(point.region, point.gridX, point.gridY, ForkJoinPool.commonPool());
+      fetch.whenComplete((forecast, error) -> {
+        latencies[index] = System.nanoTime() - sent;
+        if (error != null) {
+          failures.incrementAndGet();
+          firstError.compareAndSet(null, error);
+        }
+        inFlight.release();
+        done.countDown();
+      });
+    }
+    done.await();
+    long elapsed = System.nanoTime() - start;
+    if (report) {
+      Arrays.sort(latencies);
+      System.out.printf("mode=%s requests=%d concurrency=%d: %.0f req/s, %d failed%n",
+          mode, requests, concurrency, requests / (elapsed / 1e9), failures.get());
+      System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+          percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+          latencies[latencies.length - 1] / 1e6);
+      if (firstError.get() != null) {
+        System.out.println("first failure: " + firstError.get());
+      }
+    }
+  }
+
+  private static double percentile(long[] sorted, int p) {
+    int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+    return sorted[Math.max(0, i)] / 1e6;
+  }
+}
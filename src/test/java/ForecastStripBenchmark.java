@@ -0,0 +1,162 @@
+// JavaFX imports for the benchmark window
+import javafx.animation.AnimationTimer;   // Scrolls a little on every pulse and times the frames
+import javafx.application.Application;    // Benchmark runs as a small JavaFX app
+import javafx.application.Platform;       // Exits when the run is done
+import javafx.collections.FXCollections;  // Observable list of synthetic days
+import javafx.collections.ObservableList; // Items of the strip
+import javafx.scene.Scene;                // Window content
+import javafx.scene.control.ListCell;     // Cells counted as the strip builds them
+import javafx.scene.control.ListView;     // Virtualized strip under test
+import javafx.scene.control.ScrollPane;   // Old-style strip for comparison
+import javafx.scene.control.skin.VirtualFlow; // Scrolls the ListView by pixels
+import javafx.scene.layout.HBox;          // Holds every card in the old-style strip
+import javafx.stage.Stage;                // Benchmark window
+import javafx.util.Callback;              // The strip's own cell factory, wrapped to count cells
+
+// Custom weather classes
+import weather.ForecastSummary;           // Card texts
+
+// Java utilities
+import java.util.Arrays;                  // Sorting frame times for percentiles
+import java.util.List;                    // Command line parameters
+import java.util.function.BooleanSupplier; // Tells when the strip is scrolled to the end
+
+/**
+ * Forecast Strip Benchmark
+ * Purpose: scrolls a forecast strip with a few thousand periods and reports frame times
+ * Process:
+ * - Builds N synthetic day cards (default 3000) and shows them in the strip
+ * - An AnimationTimer scrolls a fixed number of pixels every pulse until the end is reached
+ * - The time between pulses is recorded; after a short warm-up, percentiles, the number of
+ *   cells built and the heap in use are printed
+ * Modes (first argument):
+ * - list: the virtualized ListView from ForecastCardCell.createStrip() (default)
+ * - hbox: every card built up front in an HBox inside a ScrollPane, like the old strip
+ * Usage: java ... ForecastStripBenchmark [list|hbox] [periods] [pixelsPerFrame]
+ * Run with -Djavafx.animation.fullspeed=true so frames aren't capped at 60 per second.
+ */
+public class ForecastStripBenchmark extends Application {
+  private static final String[] ICONS = {
+      "/icons/sunnysky.gif", "/icons/rain.gif", "/icons/cloudy.gif", "/icons/clear_sky.png", "/icons/snow.gif"
+  };
+  private static final int WARM_UP_FRAMES = 60;
+  private static final int MAX_FRAMES = 20000;
+
+  private final long[] frameNanos = new long[MAX_FRAMES];
+  private int frames = 0;
+  private int cardsBuilt = 0;   // FX thread only
+
+  public static void main(String[] args) {
+    launch(args);
+  }
+
+  @Override
+  public void start(Stage stage) {
+    List<String> args = getParameters().getRaw();
+    String mode = args.size() > 0 ? args.get(0) : "list";
+    int periods = args.size() > 1 ? Integer.parseInt(args.get(1)) : 3000;
+    double step = args.size() > 2 ? Double.parseDouble(args.get(2)) : 40;
+
+    ObservableList<ForecastSummary.DayCard> days = FXCollections.observableArrayList();
+    for (int i = 0; i < periods; i++) {
+      days.add(card(i));
+    }
+
+    long buildStart = System.nanoTime();
+    Scene scene;
+    Runnable scroll;
+    BooleanSupplier atEnd;
+    if (mode.equals("hbox")) {
+      HBox row = new HBox(15);
+      for (ForecastSummary.DayCard day : days) {
+        ForecastCardCell cell = new ForecastCardCell();
+        cardsBuilt++;
+        cell.updateItem(day, false);
+        row.getChildren().add(cell);
+      }
+      ScrollPane pane = new ScrollPane(row);
+      pane.setFitToHeight(true);
+      scene = new Scene(pane, 1200, 700);
+      scroll = () -> {
+        double width = row.getWidth() - pane.getViewportBounds().getWidth();
+        pane.setHvalue(Math.min(1, pane.getHvalue() + step / Math.max(1, width)));
+      };
+      atEnd = () -> pane.getHvalue() >= 1;
+    } else {
+      ListView<ForecastSummary.DayCard> list = ForecastCardCell.createStrip(days);
+      Callback<ListView<ForecastSummary.DayCard>, ListCell<ForecastSummary.DayCard>> cells = list.getCellFactory();
+      list.setCellFactory(view -> {
+        cardsBuilt++;
+        return cells.call(view);
+      });
+      scene = new Scene(list, 1200, 700);
+      scroll = () -> ((VirtualFlow<?>) list.lookup(".virtual-flow")).scrollPixels(step);
+      atEnd = () -> {
+        VirtualFlow<?> flow = (VirtualFlow<?>) list.lookup(".virtual-flow");
+        return flow.getLastVisibleCell() != null && flow.getLastVisibleCell().getIndex() == periods - 1;
+      };
+    }
+    scene.getStylesheets().add(ForecastStripBenchmark.class.getResource("/styles/weather.css").toExternalForm());
+    stage.setScene(scene);
+    stage.show();
+    long shown = System.nanoTime();
+
+    new AnimationTimer() {
+      private long last = 0;
+
+      @Override
+      public void handle(long now) {
+        if (last != 0 && frames < MAX_FRAMES) {
+          frameNanos[frames++] = now - last;
+        }
+        last = now;
+        if (atEnd.getAsBoolean() || frames == MAX_FRAMES) {
+          stop();
+          report(mode, periods, (shown - buildStart) / 1e6);
+          Platform.exit();
+        } else {
+          scroll.run();
+        }
+      }
+    }.start();
+  }
+
+  private void report(String mode, int periods, double buildMillis) {
+    int from = Math.min(WARM_UP_FRAMES, frames);
+    long[] sorted = Arrays.copyOfRange(frameNanos, from, frames);
+    Arrays.sort(sorted);
+    Runtime rt = Runtime.getRuntime();
+    System.out.printf("mode=%s periods=%d build+show=%.1f ms frames=%d%n", mode, periods, buildMillis, sorted.length);
+    if (sorted.length > 0) {
+      System.out.printf("frame ms: p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+          percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+    }
+    System.out.printf("cards built=%d heap used=%d KB%n",
+        cardsBuilt, (rt.totalMemory() - rt.freeMemory()) / 1024);
+  }
+
+  private static double percentile(long[] sorted, int p) {
+    int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+    return sorted[Math.max(0, i)] / 1e6;
+  }
+
+  // a plausible day/night card; texts vary so cells really change when recycled
+  private static ForecastSummary.DayCard card(int i) {
+    ForecastSummary.DayCard card = new ForecastSummary.DayCard();
+    card.title = "Period " + (i + 1);
+    card.day = section("Day " + (i + 1), 60 + i % 25, "Partly Sunny", ICONS[i % ICONS.length], i % 100);
+    card.night = section("Night " + (i + 1), 40 + i % 20, "Mostly Clear", ICONS[(i + 3) % ICONS.length], (i * 7) % 100);
+    return card;
+  }
+
+  private static ForecastSummary.Section section(String name, int temperature, String description, String icon, int precip) {
+    ForecastSummary.Section s = new ForecastSummary.Section();
+    s.name = name;
+    s.temperature = temperature + "°F";
+    s.description = description;
+    s.iconPath = icon;
+    s.precipitation = "Precip: " + precip + "%";
+    s.wind = "Wind: 5 to 10 mph";
+    return s;
+  }
+}
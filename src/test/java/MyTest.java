@@ -7,11 +7,54 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import weather.ForecastClassifier;
+import weather.ForecastSummary;
+import weather.Root;
+import weather.WeatherAPI;
+
 class MyTest {
 
 	@Test
-	void test() {
-		fail("Not yet implemented");
+	@DisplayName("getObject reads the recorded forecast")
+	void getObjectReadsTheFixture() throws IOException {
+		Root root = WeatherAPI.getObject(fixture());
+		assertNotNull(root);
+		assertEquals(14, root.properties.periods.size());
+		assertEquals("Today", root.properties.periods.get(0).name);
+		assertEquals(64, root.properties.periods.get(0).temperature);
+		assertEquals("Mostly Sunny", root.properties.periods.get(0).shortForecast);
+	}
+
+	@Test
+	@DisplayName("the summary pairs today with tonight")
+	void summaryOfTheFixture() throws IOException {
+		Root root = WeatherAPI.getObject(fixture());
+		ForecastSummary summary = ForecastSummary.build("Chicago", root.properties.periods,
+				ForecastClassifier.getDefault()::iconPath);
+		assertEquals("Chicago", summary.city);
+		assertEquals("Today", summary.today.name);
+		assertEquals("Tonight", summary.tonight.name);
+		assertEquals("10 to 15 mph NNW", summary.todayWind);
+		assertTrue(summary.today.temperature.startsWith("64"));
+		assertNotNull(summary.today.iconPath);
+		assertFalse(summary.days.isEmpty());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"", "{", "not json"})
+	@DisplayName("getObject returns null for a body that isn't JSON")
+	void getObjectRejectsBadJson(String json) {
+		assertNull(WeatherAPI.getObject(json));
+	}
+
+	private static String fixture() throws IOException {
+		try (InputStream in = MyTest.class.getResourceAsStream("/fixtures/forecast-LOT-77-70.json")) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
 	}
 
 }
@@ -0,0 +1,387 @@
+// JDK's built-in HTTP server
+import com.sun.net.httpserver.Headers;     // Request and response headers
+import com.sun.net.httpserver.HttpExchange; // One request/response
+import com.sun.net.httpserver.HttpServer;  // Embedded server
+
+// Java I/O
+import java.io.ByteArrayOutputStream;      // Reads and compresses fixtures
+import java.io.IOException;                // Server and fixture errors
+import java.io.InputStream;                // Fixture resource
+import java.io.OutputStream;               // Response body
+import java.io.UncheckedIOException;       // Fixture errors inside lambdas
+import java.net.InetAddress;               // Binds to loopback only
+import java.net.InetSocketAddress;         // Server address
+import java.nio.charset.StandardCharsets;  // Error bodies
+
+// Java utilities
+import java.util.ArrayDeque;               // Scripted statuses
+import java.util.Arrays;                   // Hashing fixture bytes into an ETag
+import java.util.Map;                      // Status counters, loaded fixtures
+import java.util.Optional;                 // Fixture that may not exist
+import java.util.Random;                   // Seeded fault injection
+import java.util.TreeMap;                  // Counters sorted by status
+import java.util.concurrent.ConcurrentHashMap; // Thread-safe maps
+import java.util.concurrent.ExecutorService;   // Handler threads
+import java.util.concurrent.Executors;     // Handler thread pool
+import java.util.concurrent.atomic.AtomicInteger; // Thread names
+import java.util.concurrent.atomic.LongAdder;     // Request counters
+import java.util.regex.Matcher;            // Parses grid paths
+import java.util.regex.Pattern;            // Grid path pattern
+import java.util.zip.DeflaterOutputStream; // deflate-encoded fixture
+import java.util.zip.GZIPOutputStream;     // gzip-encoded fixture
+
+/**
+ * NWS Stub Server
+ * Purpose: stands in for api.weather.gov so the client, cache and UI can be tested and
+ *          load-tested offline
+ * Process:
+ * - Answers /gridpoints/{office}/{x},{y}/forecast and .../forecast/hourly from the recorded
+ *   responses in src/test/resources/fixtures (forecast-{office}-{x}-{y}.json, or
+ *   forecast-hourly-...); grid points without a recording get the LOT 77,70 one
+ * - Every response carries an ETag and Cache-Control max-age; a matching If-None-Match
+ *   gets 304 Not Modified unless that is switched off
+ * - Bodies are gzip- or deflate-compressed when the request's Accept-Encoding allows it,
+ *   like the real API's CDN; setEncoding() picks which, or turns compression off
+ * - Faults can be injected while it runs:
+ *   - latency: every response waits a random time between a min and a max
+ *   - error rate: that share of requests gets HTTP 500
+ *   - throttle rate: that share gets 429 or 503 (settable) with a Retry-After header
+ *   - enqueue(): the next requests get exactly these statuses, for scripted tests
+ * - Random faults come from a seeded Random, so a run can be repeated
+ * - Counts requests per status so a test can check what the client really sent
+ * Location: test sources; the app finds it through WeatherAPI.setBaseUrl(getBaseUrl())
+ *           or -Dweather.baseUrl
+ * Usage: java ... NwsStubServer [port] [latencyMs] [errorRate] [throttleRate]
+ *        then start the app with -Dweather.baseUrl=http://localhost:port
+ */
+public class NwsStubServer {
+  public static final String DEFAULT_FIXTURE = "forecast-LOT-77-70.json";
+  public static final String DEFAULT_HOURLY_FIXTURE = "forecast-hourly-LOT-77-70.json";
+
+  private static final Pattern GRID_PATH =
+      Pattern.compile("/gridpoints/([A-Za-z]{3})/(\\d+),(\\d+)/forecast(/hourly)?/?");
+
+  static {
+    // the JDK server leaves Nagle's algorithm on by default, which stalls small responses
+    // on loopback by tens of milliseconds; must be set before the server classes load
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+  }
+
+  // a recorded response, compressed both ways, and the ETag it is served with
+  private static final class Fixture {
+    final byte[] body;
+    final byte[] gzip;
+    final byte[] deflate;
+    final String etag;
+
+    Fixture(byte[] body) throws IOException {
+      this.body = body;
+      this.etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+        zip.write(body);
+      }
+      this.gzip = out.toByteArray();
+      out = new ByteArrayOutputStream();
+      try (DeflaterOutputStream zip = new DeflaterOutputStream(out)) {
+        zip.write(body);
+      }
+      this.deflate = out.toByteArray();
+    }
+  }
+
+  private final HttpServer server;
+  private final ExecutorService handlers;
+  private final Map<String, Optional<Fixture>> fixtures = new ConcurrentHashMap<>();
+  private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder conditionalRequests = new LongAdder();
+  private final LongAdder bodyBytesSent = new LongAdder();
+  private final ArrayDeque<Integer> scripted = new ArrayDeque<>();   // guarded by itself
+  private final Random random = new Random(42);
+
+  private volatile long minLatencyMillis = 0;
+  private volatile long maxLatencyMillis = 0;
+  private volatile double errorRate = 0;
+  private volatile double throttleRate = 0;
+  private volatile int throttleStatus = 429;
+  private volatile int retryAfterSeconds = 1;
+  private volatile int maxAgeSeconds = 600;
+  private volatile boolean conditionalEnabled = true;
+  private volatile String encoding = "gzip";
+
+  // port 0 picks a free port; see getBaseUrl()
+  public NwsStubServer(int port) throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 64);
+    AtomicInteger count = new AtomicInteger();
+    handlers = Executors.newCachedThreadPool(r -> {
+      Thread t = new Thread(r, "nws-stub-" + count.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    server.setExecutor(handlers);
+    server.createContext("/", this::handle);
+  }
+
+  public static void main(String[] args) throws IOException {
+    NwsStubServer stub = new NwsStubServer(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+    if (args.length > 1) {
+      long latency = Long.parseLong(args[1]);
+      stub.setLatency(latency / 2, latency * 3 / 2);
+    }
+    if (args.length > 2) {
+      stub.setErrorRate(Double.parseDouble(args[2]));
+    }
+    if (args.length > 3) {
+      stub.setThrottleRate(Double.parseDouble(args[3]));
+    }
+    stub.start();
+    System.out.println("NWS stub listening on " + stub.getBaseUrl() + " (Ctrl+C to stop)");
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(stub.describe())));
+  }
+
+  public NwsStubServer start() {
+    server.start();
+    return this;
+  }
+
+  public void stop() {
+    server.stop(0);
+    handlers.shutdownNow();
+  }
+
+  // e.g. "http://127.0.0.1:54321", ready for WeatherAPI.setBaseUrl
+  public String getBaseUrl() {
+    InetSocketAddress address = server.getAddress();
+    return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+  }
+
+  // every response waits a random time in [minMillis, maxMillis]
+  public NwsStubServer setLatency(long minMillis, long maxMillis) {
+    this.minLatencyMillis = minMillis;
+    this.maxLatencyMillis = Math.max(minMillis, maxMillis);
+    return this;
+  }
+
+  // share of requests (0..1) answered with HTTP 500
+  public NwsStubServer setErrorRate(double rate) {
+    this.errorRate = rate;
+    return this;
+  }
+
+  // share of requests (0..1) answered with the throttle status and a Retry-After header
+  public NwsStubServer setThrottleRate(double rate) {
+    this.throttleRate = rate;
+    return this;
+  }
+
+  // 429 (default) or 503, and the Retry-After seconds sent with it
+  public NwsStubServer setThrottleStatus(int status, int retryAfterSeconds) {
+    this.throttleStatus = status;
+    this.retryAfterSeconds = retryAfterSeconds;
+    return this;
+  }
+
+  // Cache-Control max-age of successful responses; 0 sends no-cache
+  public NwsStubServer setMaxAge(int seconds) {
+    this.maxAgeSeconds = seconds;
+    return this;
+  }
+
+  // when off, If-None-Match is ignored and every request gets the full body
+  public NwsStubServer setConditionalEnabled(boolean enabled) {
+    this.conditionalEnabled = enabled;
+    return this;
+  }
+
+  // "gzip" (default), "deflate" or "identity"; used only if the request's Accept-Encoding lists it
+  public NwsStubServer setEncoding(String encoding) {
+    this.encoding = encoding;
+    return this;
+  }
+
+  // the next requests get these statuses in order (after the latency), instead of a random fault;
+  // 200 serves the fixture, 304 answers any conditional request as not modified
+  public NwsStubServer enqueue(int... statuses) {
+    synchronized (scripted) {
+      for (int status : statuses) {
+        scripted.add(status);
+      }
+    }
+    return this;
+  }
+
+  public NwsStubServer setSeed(long seed) {
+    random.setSeed(seed);
+    return this;
+  }
+
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  // requests that carried If-None-Match
+  public long getConditionalRequests() {
+    return conditionalRequests.sum();
+  }
+
+  // responses sent with the given status
+  public long getCount(int status) {
+    LongAdder n = statusCounts.get(status);
+    return n == null ? 0 : n.sum();
+  }
+
+  // bytes of response bodies sent, after compression
+  public long getBodyBytesSent() {
+    return bodyBytesSent.sum();
+  }
+
+  public void resetCounts() {
+    requests.reset();
+    bodyBytesSent.reset();
+    conditionalRequests.reset();
+    statusCounts.clear();
+  }
+
+  // one line of counters, e.g. for the end of a load test
+  public String describe() {
+    StringBuilder sb = new StringBuilder("stub: ").append(getRequests()).append(" requests");
+    new TreeMap<>(statusCounts).forEach((status, n) -> sb.append(", ").append(status).append(": ").append(n.sum()));
+    return sb.toString();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.increment();
+    try {
+      delay();
+      Matcher m = GRID_PATH.matcher(exchange.getRequestURI().getPath());
+      if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+        sendProblem(exchange, 405, "Method Not Allowed");
+        return;
+      }
+      if (!m.matches()) {
+        sendProblem(exchange, 404, "Not Found");
+        return;
+      }
+      Integer forced = nextScripted();
+      if (forced != null && forced != 200 && forced != 304) {
+        sendFault(exchange, forced);
+        return;
+      }
+      if (forced == null) {
+        double roll = nextDouble();
+        if (roll < errorRate) {
+          sendFault(exchange, 500);
+          return;
+        }
+        if (roll < errorRate + throttleRate) {
+          sendFault(exchange, throttleStatus);
+          return;
+        }
+      }
+
+      Optional<Fixture> fixture = fixtureFor(m.group(1).toUpperCase(), m.group(2), m.group(3), m.group(4) != null);
+      if (fixture.isEmpty()) {
+        sendProblem(exchange, 404, "Not Found");
+        return;
+      }
+      Fixture f = fixture.get();
+      Headers headers = exchange.getResponseHeaders();
+      headers.set("ETag", f.etag);
+      headers.set("Cache-Control", maxAgeSeconds > 0 ? "public, max-age=" + maxAgeSeconds : "no-cache");
+      String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+      if (ifNoneMatch != null) {
+        conditionalRequests.increment();
+      }
+      if (conditionalEnabled && (f.etag.equals(ifNoneMatch) || (forced != null && forced == 304 && ifNoneMatch != null))) {
+        send(exchange, 304, null);
+        return;
+      }
+      headers.set("Content-Type", "application/geo+json");
+      headers.set("Vary", "Accept-Encoding");
+      String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+      String use = encoding;
+      if (accepted != null && !use.equals("identity") && accepted.toLowerCase().contains(use)) {
+        headers.set("Content-Encoding", use);
+        send(exchange, 200, use.equals("gzip") ? f.gzip : f.deflate);
+      } else {
+        send(exchange, 200, f.body);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt(); // server is stopping
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void delay() throws InterruptedException {
+    long min = minLatencyMillis;
+    long max = maxLatencyMillis;
+    long wait = max > min ? min + (long) (nextDouble() * (max - min + 1)) : min;
+    if (wait > 0) {
+      Thread.sleep(wait);
+    }
+  }
+
+  private Integer nextScripted() {
+    synchronized (scripted) {
+      return scripted.poll();
+    }
+  }
+
+  private double nextDouble() {
+    return random.nextDouble(); // Random is thread-safe; the seed makes a run repeatable
+  }
+
+  private Optional<Fixture> fixtureFor(String office, String x, String y, boolean hourly) {
+    String name = (hourly ? "forecast-hourly-" : "forecast-") + office + "-" + x + "-" + y + ".json";
+    Optional<Fixture> recorded = fixtures.computeIfAbsent(name, NwsStubServer::loadFixture);
+    if (recorded.isPresent()) {
+      return recorded;
+    }
+    return fixtures.computeIfAbsent(hourly ? DEFAULT_HOURLY_FIXTURE : DEFAULT_FIXTURE, NwsStubServer::loadFixture);
+  }
+
+  private static Optional<Fixture> loadFixture(String name) {
+    try (InputStream in = NwsStubServer.class.getResourceAsStream("/fixtures/" + name)) {
+      if (in == null) {
+        return Optional.empty();
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      in.transferTo(out);
+      return Optional.of(new Fixture(out.toByteArray()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void sendFault(HttpExchange exchange, int status) throws IOException {
+    if (status == 429 || status == 503) {
+      exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+    }
+    sendProblem(exchange, status, status == 429 ? "Too Many Requests"
+        : status == 503 ? "Service Unavailable" : "Unexpected Problem");
+  }
+
+  // error body in the application/problem+json shape the real API uses
+  private void sendProblem(HttpExchange exchange, int status, String title) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/problem+json");
+    String body = "{\"type\":\"https://api.weather.gov/problems/Stub\",\"title\":\"" + title
+        + "\",\"status\":" + status + ",\"detail\":\"Injected by NwsStubServer\"}";
+    send(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+    statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+    boolean noBody = body == null || exchange.getRequestMethod().equals("HEAD");
+    exchange.sendResponseHeaders(status, noBody ? -1 : body.length);
+    if (!noBody) {
+      bodyBytesSent.add(body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+}
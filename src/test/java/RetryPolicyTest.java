@@ -0,0 +1,158 @@
+// JUnit
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Custom weather classes
+import weather.RetryPolicy;               // Policy under test
+import weather.WeatherClient;             // HTTP client pointed at the stub
+
+// Java utilities
+import java.net.http.HttpResponse;        // Responses from the stub
+import java.net.http.HttpTimeoutException; // Deadline failures
+import java.time.Duration;                // Attempt timeouts
+import java.util.concurrent.CompletableFuture; // Result of a send
+import java.util.concurrent.ExecutionException; // Wraps the failure of a send
+import java.util.concurrent.TimeUnit;     // Waits on results
+
+/**
+ * Retry Policy Test
+ * Purpose: checks RetryPolicy against NwsStubServer, with no network
+ * Process:
+ * - Scripts the stub's statuses with enqueue, or slows it with setLatency
+ * - Sends one forecast request through a fresh policy and checks the response, the time it
+ *   took, how many requests reached the stub and the policy's counters
+ */
+class RetryPolicyTest {
+  private static final String PATH = "/gridpoints/LOT/77,70/forecast";
+
+  private NwsStubServer stub;
+  private WeatherClient client;
+
+  @BeforeEach
+  void start() throws Exception {
+    stub = new NwsStubServer(0).start();
+    client = WeatherClient.create(stub.getBaseUrl());
+  }
+
+  @AfterEach
+  void stop() {
+    client.shutdown();
+    stub.stop();
+  }
+
+  @Test
+  void recoversFrom503Then500() throws Exception {
+    RetryPolicy policy = new RetryPolicy(4, 10, 50, 10_000);
+    stub.setThrottleStatus(503, 0).enqueue(503, 500);
+
+    HttpResponse<byte[]> response = send(policy, null).get(5, TimeUnit.SECONDS);
+    assertEquals(200, response.statusCode());
+    assertEquals(3, stub.getRequests());
+    assertEquals(1, stub.getCount(503));
+    assertEquals(1, stub.getCount(500));
+    assertEquals(1, policy.getRetriedRequests());
+    assertEquals(2, policy.getRetries());
+    assertEquals(0, policy.getGaveUp());
+  }
+
+  @Test
+  void givesUpAfterMaxAttempts() throws Exception {
+    RetryPolicy policy = new RetryPolicy(3, 0, 0, 10_000);
+    stub.enqueue(500, 500, 500, 500);
+
+    HttpResponse<byte[]> response = send(policy, null).get(5, TimeUnit.SECONDS);
+    assertEquals(500, response.statusCode(), "the last response is returned, whatever its status");
+    assertEquals(3, stub.getRequests());
+    assertEquals(1, policy.getGaveUp());
+  }
+
+  @Test
+  void notFoundIsNotRetried() throws Exception {
+    RetryPolicy policy = new RetryPolicy(4, 0, 0, 10_000);
+    stub.enqueue(404);
+
+    assertEquals(404, send(policy, null).get(5, TimeUnit.SECONDS).statusCode());
+    assertEquals(1, stub.getRequests());
+    assertEquals(0, policy.getRetries());
+  }
+
+  @Test
+  void retryAfterIsTheMinimumWait() throws Exception {
+    // no backoff of its own, so only Retry-After makes it wait
+    RetryPolicy policy = new RetryPolicy(2, 0, 0, 10_000);
+    stub.setThrottleStatus(429, 1).enqueue(429);
+
+    long start = System.nanoTime();
+    HttpResponse<byte[]> response = send(policy, null).get(5, TimeUnit.SECONDS);
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertEquals(200, response.statusCode());
+    assertTrue(elapsed >= 1000, "retried after " + elapsed + " ms, before Retry-After");
+    assertTrue(policy.getAddedLatencyPercentile(100, true) >= 1000);
+  }
+
+  @Test
+  void retryAfterPastTheDeadlineReturnsTheResponse() throws Exception {
+    RetryPolicy policy = new RetryPolicy(4, 0, 0, 2000);
+    stub.setThrottleStatus(503, 5).enqueue(503);
+
+    long start = System.nanoTime();
+    HttpResponse<byte[]> response = send(policy, null).get(5, TimeUnit.SECONDS);
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertEquals(503, response.statusCode());
+    assertEquals(1, stub.getRequests());
+    assertTrue(elapsed < 1000, "waited " + elapsed + " ms for a retry that could not finish in time");
+  }
+
+  @Test
+  void deadlineCutsTheAttemptTimeout() throws Exception {
+    RetryPolicy policy = new RetryPolicy(4, 0, 0, 300);
+    stub.setLatency(2000, 2000);
+
+    long start = System.nanoTime();
+    ExecutionException e = assertThrows(ExecutionException.class,
+        () -> send(policy, Duration.ofSeconds(10)).get(5, TimeUnit.SECONDS));
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertInstanceOf(HttpTimeoutException.class, e.getCause());
+    assertTrue(elapsed < 1500, "failed after " + elapsed + " ms, deadline was 300 ms");
+  }
+
+  @Test
+  void cancelStopsFurtherAttempts() throws Exception {
+    RetryPolicy policy = new RetryPolicy(4, 300, 300, 10_000);
+    stub.enqueue(500, 500, 500, 500);
+
+    CompletableFuture<HttpResponse<byte[]>> result = send(policy, null);
+    long deadline = System.currentTimeMillis() + 5000;
+    while (stub.getRequests() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertTrue(result.cancel(true));
+    Thread.sleep(1000); // longer than every backoff left
+    assertEquals(1, stub.getRequests(), "nothing is sent after cancel");
+    assertTrue(result.isCancelled());
+  }
+
+  @Test
+  void retriedOnlyLatencyCountsFastRetries() throws Exception {
+    RetryPolicy policy = new RetryPolicy(2, 0, 0, 10_000);
+    stub.enqueue(500);
+    assertEquals(200, send(policy, null).get(5, TimeUnit.SECONDS).statusCode()); // retried at once
+    stub.setThrottleStatus(429, 1).enqueue(429);
+    assertEquals(200, send(policy, null).get(5, TimeUnit.SECONDS).statusCode()); // retried after a second
+    assertEquals(200, send(policy, null).get(5, TimeUnit.SECONDS).statusCode()); // not retried
+
+    assertEquals(2, policy.getRetriedRequests());
+    // the fast retry is the median of the two retried requests, even if it added under a millisecond
+    assertTrue(policy.getAddedLatencyPercentile(50, true) < 1000);
+    assertTrue(policy.getAddedLatencyPercentile(100, true) >= 1000);
+    assertEquals(0, policy.getAddedLatencyPercentile(33, false));
+  }
+
+  private CompletableFuture<HttpResponse<byte[]>> send(RetryPolicy policy, Duration attemptTimeout) {
+    return policy.send(client.getHttpClient(), timeout -> client.newRequest(PATH).timeout(timeout).build(),
+        HttpResponse.BodyHandlers.ofByteArray(), attemptTimeout);
+  }
+}
@@ -0,0 +1,86 @@
+// Jackson's date parsing (what the old java.util.Date fields used)
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+
+// Custom weather classes
+import weather.IsoTime;                   // Hand-rolled parser under test
+
+// Java utilities
+import java.lang.management.ManagementFactory; // Allocated bytes per thread
+import java.time.OffsetDateTime;          // java.time parser for comparison
+import java.util.Date;                    // Result type of the old path
+
+/**
+ * Timestamp Parse Benchmark
+ * Purpose: compares the ways a forecast timestamp such as "2025-04-14T06:00:00-05:00" can be decoded
+ * Process:
+ * - Date path: Jackson's StdDateFormat, which the old Date fields went through (offset is lost)
+ * - java.time: OffsetDateTime.parse, then epoch millis and offset
+ * - IsoTime: the hand-rolled parser Period and ForecastParser use now
+ * - Each is warmed up, then timed over the same timestamps; ns/op and bytes allocated
+ *   per op (from the thread's allocation counter) are printed
+ * Usage: java ... TimestampParseBenchmark [iterations]
+ */
+public class TimestampParseBenchmark {
+  private static final String[] TIMESTAMPS = {
+      "2025-04-14T06:00:00-05:00", "2025-04-14T18:00:00-05:00", "2025-04-15T06:00:00-05:00",
+      "2025-04-14T10:42:31+00:00", "2025-11-02T01:00:00-06:00", "2025-07-04T23:00:00-07:00",
+      "2025-12-31T23:59:59-10:00", "2026-01-01T00:00:00+00:00"
+  };
+
+  private interface Parse {
+    long run(String text) throws Exception;
+  }
+
+  public static void main(String[] args) throws Exception {
+    int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+    StdDateFormat jackson = new StdDateFormat();
+
+    Parse datePath = text -> {
+      Date d = jackson.parse(text);
+      return d.getTime();
+    };
+    Parse javaTime = text -> {
+      OffsetDateTime t = OffsetDateTime.parse(text);
+      return t.toInstant().toEpochMilli() + t.getOffset().getTotalSeconds();
+    };
+    Parse isoTime = text -> IsoTime.parseMillis(text) + IsoTime.parseOffsetMinutes(text);
+
+    // all three must agree on the instant before timing means anything
+    for (String text : TIMESTAMPS) {
+      long expected = OffsetDateTime.parse(text).toInstant().toEpochMilli();
+      if (jackson.parse(text).getTime() != expected || IsoTime.parseMillis(text) != expected) {
+        throw new IllegalStateException("Parsers disagree on " + text);
+      }
+    }
+
+    for (int round = 0; round < 2; round++) {
+      boolean report = round == 1; // first round is warm-up
+      run("Date (StdDateFormat)", datePath, iterations, report);
+      run("OffsetDateTime.parse", javaTime, iterations, report);
+      run("IsoTime", isoTime, iterations, report);
+    }
+  }
+
+  private static void run(String name, Parse parse, int iterations, boolean report) throws Exception {
+    long sink = 0;
+    long bytesBefore = allocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      sink += parse.run(TIMESTAMPS[i & 7]);
+    }
+    long nanos = System.nanoTime() - start;
+    long bytes = allocatedBytes() - bytesBefore;
+    if (report) {
+      System.out.printf("%-22s %8.1f ns/op %8.1f bytes/op (checksum %d)%n",
+          name, (double) nanos / iterations, (double) bytes / iterations, sink);
+    }
+  }
+
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+    }
+    return 0;
+  }
+}
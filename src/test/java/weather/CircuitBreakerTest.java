@@ -0,0 +1,134 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Breaker state transitions, on a clock the test moves by hand.
+ */
+class CircuitBreakerTest {
+    private static final long OPEN_MILLIS = 1000;
+    private static final int WINDOW_SECONDS = 10;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final CircuitBreaker breaker = new CircuitBreaker(0.5, 4, WINDOW_SECONDS, OPEN_MILLIS, now::get);
+
+    @Test
+    void opensAtTheFailureRateOnceThereAreEnoughRequests() {
+        record(true, true, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "3 requests are fewer than minRequests");
+        record(false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1, breaker.getOpened());
+        assertEquals(0.5, breaker.getFailureRate());
+    }
+
+    @Test
+    void staysClosedBelowTheFailureRate() {
+        record(true, true, true, false, true, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void refusesWhileOpen() {
+        open();
+        assertNull(breaker.allowRequest());
+        now.addAndGet(OPEN_MILLIS - 1);
+        assertNull(breaker.allowRequest());
+        assertEquals(2, breaker.getRefused());
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThrough() {
+        open();
+        now.addAndGet(OPEN_MILLIS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNotNull(breaker.allowRequest());
+        assertNull(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void successfulProbeClosesWithACleanWindow() {
+        open();
+        now.addAndGet(OPEN_MILLIS);
+        breaker.record(breaker.allowRequest(), true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getWindowRequests());
+        record(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "the failures before the probe are forgotten");
+    }
+
+    @Test
+    void failedProbeOpensAgainForTheWholePeriod() {
+        open();
+        now.addAndGet(OPEN_MILLIS);
+        breaker.record(breaker.allowRequest(), false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpened());
+        now.addAndGet(OPEN_MILLIS - 1);
+        assertNull(breaker.allowRequest());
+        now.addAndGet(1);
+        assertNotNull(breaker.allowRequest());
+    }
+
+    @Test
+    void lateOutcomeCannotEndTheProbe() {
+        CircuitBreaker.Permit late = breaker.allowRequest(); // let through while closed, answers after the probe starts
+        open();
+        now.addAndGet(OPEN_MILLIS);
+        CircuitBreaker.Permit probe = breaker.allowRequest();
+        assertNotNull(probe);
+
+        breaker.record(late, true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.allowRequest(), "the probe is still in flight");
+        breaker.record(late, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.allowRequest());
+
+        breaker.record(probe, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void abandonedProbeHandsOver() {
+        open();
+        now.addAndGet(OPEN_MILLIS);
+        CircuitBreaker.Permit first = breaker.allowRequest();
+        breaker.abandon(first);
+        CircuitBreaker.Permit second = breaker.allowRequest();
+        assertNotNull(second);
+
+        breaker.record(first, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(), "the abandoned probe no longer counts");
+        breaker.record(second, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        record(true, false, false);
+        assertEquals(3, breaker.getWindowRequests());
+        now.addAndGet(WINDOW_SECONDS * 1000L);
+        assertEquals(0, breaker.getWindowRequests());
+        record(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void record(boolean... outcomes) {
+        for (boolean success : outcomes) {
+            CircuitBreaker.Permit permit = breaker.allowRequest();
+            assertNotNull(permit);
+            breaker.record(permit, success);
+        }
+    }
+
+    private void open() {
+        record(false, false, false, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
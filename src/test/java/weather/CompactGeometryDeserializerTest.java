@@ -0,0 +1,122 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * GeoJSON polygons read straight from the token stream into CompactGeometry.
+ */
+class CompactGeometryDeserializerTest {
+    private static final ObjectReader READER = WeatherAPI.MAPPER.readerFor(CompactGeometry.class);
+
+    @Test
+    void outerRing() throws IOException {
+        CompactGeometry g = read("{\"type\":\"Polygon\",\"coordinates\":[[[-87.6,41.8],[-87.5,41.8],[-87.5,41.9],[-87.6,41.8]]]}");
+        assertEquals("Polygon", g.type);
+        assertEquals(1, g.ringCount());
+        assertEquals(4, g.pointCount());
+        assertEquals(-87.5, g.x(1));
+        assertEquals(41.9, g.y(2));
+        assertArrayEquals(new double[]{-87.6, 41.8, -87.5, 41.9}, g.boundingBox());
+    }
+
+    @Test
+    void ringsWithHoles() throws IOException {
+        CompactGeometry g = read("{\"type\":\"Polygon\",\"coordinates\":["
+                + "[[0,0],[10,0],[10,10],[0,10],[0,0]],"
+                + "[[2,2],[3,2],[3,3],[2,2]],"
+                + "[[5,5],[6,5],[6,6],[5,5]]]}");
+        assertEquals(3, g.ringCount());
+        assertEquals(13, g.pointCount());
+        assertEquals(0, g.ringStart(0));
+        assertEquals(5, g.ringEnd(0));
+        assertEquals(5, g.ringStart(1));
+        assertEquals(9, g.ringStart(2));
+        assertEquals(13, g.ringEnd(2));
+        assertEquals(3.0, g.x(6));
+        assertArrayEquals(new double[]{5, 5}, g.centroid(), 1e-9);
+    }
+
+    @Test
+    void altitudeIsIgnored() throws IOException {
+        CompactGeometry g = read("{\"type\":\"Polygon\",\"coordinates\":[[[1,2,200.5],[3,4,201],[5,6,[7]],[1,2,0]]]}");
+        assertEquals(4, g.pointCount());
+        assertEquals(3.0, g.x(1));
+        assertEquals(4.0, g.y(1));
+        assertEquals(6.0, g.y(2));
+    }
+
+    @Test
+    void emptyCoordinates() throws IOException {
+        CompactGeometry g = read("{\"type\":\"Polygon\",\"coordinates\":[]}");
+        assertEquals(0, g.ringCount());
+        assertEquals(0, g.pointCount());
+        assertNull(g.boundingBox());
+        assertNull(g.centroid());
+    }
+
+    @Test
+    void emptyRing() throws IOException {
+        CompactGeometry g = read("{\"type\":\"Polygon\",\"coordinates\":[[]]}");
+        assertEquals(1, g.ringCount());
+        assertEquals(0, g.pointCount());
+        assertNull(g.centroid());
+    }
+
+    @Test
+    void typeAfterCoordinatesAndOtherFields() throws IOException {
+        CompactGeometry g = read("{\"bbox\":[0,0,1,1],\"coordinates\":[[[0,0],[1,0],[1,1],[0,0]]],"
+                + "\"crs\":{\"type\":\"name\"},\"type\":\"Polygon\"}");
+        assertEquals("Polygon", g.type);
+        assertEquals(4, g.pointCount());
+    }
+
+    @Test
+    void recordedForecast() throws IOException {
+        Forecast forecast;
+        try (InputStream in = CompactGeometryDeserializerTest.class.getResourceAsStream("/fixtures/forecast-LOT-77-70.json")) {
+            forecast = ForecastParser.parseWithGeometry(in);
+        }
+        assertEquals("Polygon", forecast.geometry.type);
+        assertEquals(1, forecast.geometry.ringCount());
+        assertTrue(forecast.geometry.pointCount() >= 4);
+        assertEquals(14, forecast.periods.size(), "the fields after the geometry are still read");
+    }
+
+    @Test
+    void multiPolygonIsRejected() {
+        IOException e = assertThrows(IOException.class,
+                () -> read("{\"type\":\"MultiPolygon\",\"coordinates\":[[[[0,0],[1,0],[1,1],[0,0]]]]}"));
+        assertTrue(e.getMessage().contains("MultiPolygon"), e.getMessage());
+    }
+
+    @Test
+    void multiPolygonIsRejectedWhateverItsType() {
+        IOException e = assertThrows(IOException.class,
+                () -> read("{\"coordinates\":[[[[0,0],[1,0],[1,1],[0,0]]]]}"));
+        assertTrue(e.getMessage().contains("nested too deeply"), e.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"type\":\"Point\",\"coordinates\":[1,2]}",
+            "{\"type\":\"LineString\",\"coordinates\":[[1,2],[3,4]]}",
+            "{\"coordinates\":[[[1,\"x\"]]]}",
+            "{\"type\":\"Point\",\"coordinates\":[]}"
+    })
+    void otherShapesAreRejected(String json) {
+        assertThrows(IOException.class, () -> read(json));
+    }
+
+    private static CompactGeometry read(String json) throws IOException {
+        return READER.readValue(json);
+    }
+}
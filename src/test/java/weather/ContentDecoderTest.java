@@ -0,0 +1,156 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Every Content-Encoding the client accepts decodes to the recorded
+ * forecast, anything else is refused, and the byte counters add up.
+ */
+class ContentDecoderTest {
+    private final ContentDecoder decoder = new ContentDecoder();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "x-gzip", " GZIP "})
+    void gzip(String encoding) throws IOException {
+        byte[] body = fixture();
+        byte[] wire = gzip(body);
+        assertArrayEquals(body, decode(wire, encoding));
+        assertEquals(wire.length, decoder.getWireBytes());
+        assertEquals(body.length, decoder.getDecodedBytes());
+        assertEquals(1, decoder.getCompressedResponses());
+        assertEquals(0, decoder.getIdentityResponses());
+    }
+
+    @Test
+    void zlibDeflate() throws IOException {
+        byte[] body = fixture();
+        assertArrayEquals(body, decode(deflate(body, false), "deflate"));
+        assertEquals(1, decoder.getCompressedResponses());
+    }
+
+    @Test
+    void rawDeflate() throws IOException {
+        byte[] body = fixture();
+        assertArrayEquals(body, decode(deflate(body, true), "deflate"));
+    }
+
+    @Test
+    void emptyDeflateBody() throws IOException {
+        assertArrayEquals(new byte[0], decode(deflate(new byte[0], false), "deflate"));
+        assertArrayEquals(new byte[0], decode(deflate(new byte[0], true), "deflate"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"identity", "", "Identity"})
+    void identity(String encoding) throws IOException {
+        byte[] body = fixture();
+        assertArrayEquals(body, decode(body, encoding));
+        assertEquals(body.length, decoder.getWireBytes());
+        assertEquals(body.length, decoder.getDecodedBytes());
+        assertEquals(1, decoder.getIdentityResponses());
+        assertEquals(0, decoder.getCompressedResponses());
+        assertEquals(1.0, decoder.getCompressionRatio());
+    }
+
+    @Test
+    void noHeaderIsIdentity() throws IOException {
+        byte[] body = fixture();
+        HttpHeaders none = HttpHeaders.of(Map.of(), (name, value) -> true);
+        try (InputStream in = decoder.decode(new ByteArrayInputStream(body), none)) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+        assertEquals(1, decoder.getIdentityResponses());
+    }
+
+    @Test
+    void headerIsRead() throws IOException {
+        byte[] body = fixture();
+        Map<String, List<String>> map = Map.of("Content-Encoding", Collections.singletonList("gzip"));
+        try (InputStream in = decoder.decode(new ByteArrayInputStream(gzip(body)), HttpHeaders.of(map, (n, v) -> true))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"br", "compress", "gzip, br", "zstd"})
+    void unknownEncodingIsRefusedAndClosesTheBody(String encoding) {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream body = new ByteArrayInputStream(new byte[16]) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        IOException e = assertThrows(IOException.class, () -> decoder.decode(body, encoding));
+        assertTrue(e.getMessage().contains(encoding), e.getMessage());
+        assertTrue(closed.get(), "the connection is released");
+        assertEquals(0, decoder.getCompressedResponses() + decoder.getIdentityResponses());
+    }
+
+    @Test
+    void corruptGzipFails() {
+        byte[] wire = "not gzip at all".getBytes();
+        assertThrows(IOException.class, () -> decode(wire, "gzip"));
+    }
+
+    @Test
+    void countersAddUpOverResponses() throws IOException {
+        byte[] body = fixture();
+        byte[] gzipped = gzip(body);
+        decode(gzipped, "gzip");
+        decode(body, "identity");
+        assertEquals(gzipped.length + body.length, decoder.getWireBytes());
+        assertEquals(2L * body.length, decoder.getDecodedBytes());
+        assertEquals(1, decoder.getCompressedResponses());
+        assertEquals(1, decoder.getIdentityResponses());
+        assertTrue(decoder.getCompressionRatio() > 1);
+    }
+
+    private byte[] decode(byte[] wire, String encoding) throws IOException {
+        try (InputStream in = decoder.decode(new ByteArrayInputStream(wire), encoding)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] body, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream zip = new DeflaterOutputStream(out, deflater)) {
+            zip.write(body);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] fixture() throws IOException {
+        try (InputStream in = ContentDecoderTest.class.getResourceAsStream("/fixtures/forecast-LOT-77-70.json")) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The on-disk format: a saved forecast reads back the same, and every kind
+ * of damaged or foreign file is a cache miss rather than an error.
+ */
+class DiskForecastCacheTest {
+    private static final GridPoint POINT = new GridPoint("LOT", 77, 70);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTrip() throws IOException {
+        DiskForecastCache disk = new DiskForecastCache(directory);
+        Forecast saved = fixture();
+        disk.save(POINT, saved);
+
+        Forecast loaded = disk.load(POINT);
+        assertNotNull(loaded);
+        assertEquals(saved.updateTime, loaded.updateTime);
+        assertEquals(saved.generatedAt, loaded.generatedAt);
+        assertEquals(0, loaded.expiresAt, "a forecast from disk is always stale");
+        assertEquals(saved.periods.size(), loaded.periods.size());
+        for (int i = 0; i < saved.periods.size(); i++) {
+            Period a = saved.periods.get(i);
+            Period b = loaded.periods.get(i);
+            assertEquals(a.name, b.name);
+            assertEquals(a.startTimeMillis, b.startTimeMillis);
+            assertEquals(a.startTime, b.startTime);
+            assertEquals(a.endOffsetMinutes, b.endOffsetMinutes);
+            assertEquals(a.temperature, b.temperature);
+            assertEquals(a.icon, b.icon);
+            assertEquals(a.detailedForecast, b.detailedForecast);
+        }
+    }
+
+    @Test
+    void missingFileIsAMiss() {
+        assertNull(new DiskForecastCache(directory).load(POINT));
+    }
+
+    @Test
+    void badMagicIsAMiss() throws IOException {
+        assertMissAfter(bytes -> bytes[0] ^= 1);
+    }
+
+    @Test
+    void otherVersionIsAMiss() throws IOException {
+        assertMissAfter(bytes -> ByteBuffer.wrap(bytes).putShort(4, (short) (DiskForecastCache.VERSION + 1)));
+        assertMissAfter(bytes -> ByteBuffer.wrap(bytes).putShort(4, (short) (DiskForecastCache.VERSION - 1)));
+    }
+
+    @Test
+    void truncatedFileIsAMiss() throws IOException {
+        DiskForecastCache disk = saved();
+        Path file = disk.fileFor(POINT);
+        byte[] bytes = Files.readAllBytes(file);
+        for (int length : new int[]{0, 3, 17, bytes.length / 2, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertNull(disk.load(POINT), "truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void wrongLengthIsAMiss() throws IOException {
+        assertMissAfter(bytes -> ByteBuffer.wrap(bytes).putInt(6, bytes.length));
+        assertMissAfter(bytes -> ByteBuffer.wrap(bytes).putInt(6, -1));
+    }
+
+    @Test
+    void checksumMismatchIsAMiss() throws IOException {
+        assertMissAfter(bytes -> bytes[bytes.length - 1] ^= 0x20);
+        assertMissAfter(bytes -> ByteBuffer.wrap(bytes).putLong(10, ByteBuffer.wrap(bytes).getLong(10) + 1));
+    }
+
+    @Test
+    void otherGridPointIsAMiss() throws IOException {
+        DiskForecastCache disk = saved();
+        Files.move(disk.fileFor(POINT), disk.fileFor(new GridPoint("LOT", 1, 1)));
+        assertNull(disk.load(new GridPoint("LOT", 1, 1)));
+    }
+
+    @Test
+    void failedMoveLeavesNoTempFile() throws IOException {
+        DiskForecastCache disk = new DiskForecastCache(directory);
+        // a non-empty directory where the file should go makes the move fail
+        Files.createDirectories(disk.fileFor(POINT).resolve("blocker"));
+        disk.save(POINT, fixture());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.filter(f -> f.toString().endsWith(".tmp")).count());
+        }
+    }
+
+    @Test
+    void saveAsyncWritesTheNewestForecast() throws Exception {
+        DiskForecastCache disk = new DiskForecastCache(directory);
+        Forecast older = fixture();
+        Forecast newer = fixture();
+        newer.updateTime = older.updateTime + 1;
+        disk.saveAsync(POINT, older);
+        disk.saveAsync(POINT, newer);
+        long deadline = System.currentTimeMillis() + 5000;
+        Forecast loaded = disk.load(POINT);
+        while ((loaded == null || loaded.updateTime != newer.updateTime) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            loaded = disk.load(POINT);
+        }
+        assertNotNull(loaded);
+        assertEquals(newer.updateTime, loaded.updateTime);
+    }
+
+    private interface Damage {
+        void apply(byte[] bytes);
+    }
+
+    private void assertMissAfter(Damage damage) throws IOException {
+        DiskForecastCache disk = saved();
+        Path file = disk.fileFor(POINT);
+        byte[] bytes = Files.readAllBytes(file);
+        damage.apply(bytes);
+        Files.write(file, bytes);
+        assertNull(disk.load(POINT));
+    }
+
+    private DiskForecastCache saved() throws IOException {
+        DiskForecastCache disk = new DiskForecastCache(directory);
+        disk.save(POINT, fixture());
+        assertNotNull(disk.load(POINT));
+        return disk;
+    }
+
+    private static Forecast fixture() throws IOException {
+        try (InputStream in = DiskForecastCacheTest.class.getResourceAsStream("/fixtures/forecast-LOT-77-70.json")) {
+            return ForecastParser.parse(in);
+        }
+    }
+}
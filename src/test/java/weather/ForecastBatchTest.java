@@ -0,0 +1,161 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The bounded-concurrency batch, with fetches the test completes by hand
+ * instead of HTTP requests.
+ */
+class ForecastBatchTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void concurrencyNeverExceedsTheLimit() {
+        List<CompletableFuture<ArrayList<Period>>> pending = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Map<GridPoint, CompletableFuture<ForecastResult>> futures = ForecastBatch.fetchAll(points(50), 4, DIRECT, r -> { },
+                (p, executor) -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    CompletableFuture<ArrayList<Period>> f = new CompletableFuture<>();
+                    pending.add(f);
+                    return f;
+                });
+        assertEquals(4, pending.size(), "one fetch per lane to start with");
+
+        Random random = new Random(1);
+        int completed = 0;
+        while (completed < 50) {
+            List<CompletableFuture<ArrayList<Period>>> open = new ArrayList<>();
+            for (CompletableFuture<ArrayList<Period>> f : new ArrayList<>(pending)) {
+                if (!f.isDone()) {
+                    open.add(f);
+                }
+            }
+            assertTrue(open.size() <= 4, open.size() + " fetches in flight");
+            CompletableFuture<ArrayList<Period>> next = open.get(random.nextInt(open.size()));
+            inFlight.decrementAndGet();
+            next.complete(new ArrayList<>());
+            completed++;
+        }
+        assertEquals(4, maxInFlight.get());
+        assertEquals(50, pending.size());
+        futures.values().forEach(f -> assertTrue(f.isDone()));
+    }
+
+    @Test
+    void everyPointGetsExactlyOneResult() {
+        List<GridPoint> points = points(20);
+        points.addAll(points(5)); // repeats are fetched once
+        Map<GridPoint, AtomicInteger> reported = new ConcurrentHashMap<>();
+        Map<GridPoint, AtomicInteger> fetched = new ConcurrentHashMap<>();
+        Map<GridPoint, CompletableFuture<ForecastResult>> futures = ForecastBatch.fetchAll(points, 3, DIRECT,
+                r -> reported.computeIfAbsent(r.point, p -> new AtomicInteger()).incrementAndGet(),
+                (p, executor) -> {
+                    fetched.computeIfAbsent(p, k -> new AtomicInteger()).incrementAndGet();
+                    return CompletableFuture.supplyAsync(ArrayList::new);
+                });
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+
+        assertEquals(20, futures.size());
+        assertEquals(20, reported.size());
+        reported.values().forEach(n -> assertEquals(1, n.get()));
+        fetched.values().forEach(n -> assertEquals(1, n.get()));
+        futures.forEach((p, f) -> assertEquals(p, f.join().point));
+    }
+
+    @Test
+    void oneFailureDoesNotAbortTheOthers() {
+        List<GridPoint> points = points(10);
+        GridPoint failsLater = points.get(2);
+        GridPoint throwsAtOnce = points.get(5);
+        IOException error = new IOException("503");
+        Map<GridPoint, CompletableFuture<ForecastResult>> futures = ForecastBatch.fetchAll(points, 2, DIRECT, r -> { },
+                (p, executor) -> {
+                    if (p.equals(throwsAtOnce)) {
+                        throw new IllegalStateException("no client");
+                    }
+                    if (p.equals(failsLater)) {
+                        return CompletableFuture.supplyAsync(() -> {
+                            throw new UncheckedIOException(error);
+                        });
+                    }
+                    return CompletableFuture.supplyAsync(ArrayList::new);
+                });
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+
+        for (GridPoint p : points) {
+            ForecastResult result = futures.get(p).join();
+            if (p.equals(failsLater)) {
+                assertFalse(result.isSuccess());
+                assertSame(error, result.error.getCause(), "the CompletionException is unwrapped");
+                assertNull(result.periods);
+            } else if (p.equals(throwsAtOnce)) {
+                assertInstanceOf(IllegalStateException.class, result.error);
+            } else {
+                assertTrue(result.isSuccess(), p.toString());
+                assertNotNull(result.periods);
+            }
+        }
+    }
+
+    @Test
+    void synchronousFetchesDoNotGrowTheStack() {
+        int n = 200_000;
+        AtomicInteger reported = new AtomicInteger();
+        Map<GridPoint, CompletableFuture<ForecastResult>> futures = ForecastBatch.fetchAll(points(n), 1, DIRECT,
+                r -> reported.incrementAndGet(),
+                (p, executor) -> p.gridX % 2 == 0 ? CompletableFuture.completedFuture(new ArrayList<>())
+                        : CompletableFuture.failedFuture(new IOException("refused")));
+        assertEquals(n, reported.get());
+        futures.values().forEach(f -> assertTrue(f.isDone()));
+    }
+
+    @Test
+    void pendingFetchesAfterSynchronousOnesKeepTheLaneGoing() {
+        // a lane alternates between fetches that are already done and ones that finish later
+        List<CompletableFuture<ArrayList<Period>>> pending = new ArrayList<>();
+        AtomicInteger reported = new AtomicInteger();
+        ForecastBatch.fetchAll(points(100), 1, DIRECT, r -> reported.incrementAndGet(), (p, executor) -> {
+            if (p.gridX % 10 != 0) {
+                return CompletableFuture.completedFuture(new ArrayList<>());
+            }
+            CompletableFuture<ArrayList<Period>> f = new CompletableFuture<>();
+            pending.add(f);
+            return f;
+        });
+        for (int i = 0; i < pending.size(); i++) {
+            assertEquals(i + 1, pending.size(), "the lane waits for the fetch in flight");
+            pending.get(i).complete(new ArrayList<>());
+        }
+        assertEquals(10, pending.size());
+        assertEquals(100, reported.get());
+    }
+
+    @Test
+    void concurrencyMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> ForecastBatch.fetchAll(points(1), 0));
+    }
+
+    private static List<GridPoint> points(int n) {
+        List<GridPoint> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            points.add(new GridPoint("LOT", i, 70));
+        }
+        return points;
+    }
+}
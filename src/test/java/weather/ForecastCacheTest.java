@@ -0,0 +1,126 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.http.HttpHeaders;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Expiry of cached forecasts: what WeatherAPI.expiresAt reads from the
+ * response headers, and how ForecastCache turns that into freshness.
+ */
+class ForecastCacheTest {
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long DEFAULT_TTL = 10 * 60 * 1000;
+    private static final GridPoint POINT = new GridPoint("LOT", 77, 70);
+
+    private final ForecastCache cache = new ForecastCache(8, DEFAULT_TTL, Runnable::run);
+
+    @Test
+    void noHeadersIsUnknown() {
+        assertEquals(Forecast.EXPIRES_UNKNOWN, WeatherAPI.expiresAt(headers(), NOW));
+    }
+
+    @Test
+    void noCacheExpiresNow() {
+        assertEquals(NOW, WeatherAPI.expiresAt(headers("Cache-Control", "no-cache"), NOW));
+    }
+
+    @Test
+    void noStoreExpiresNow() {
+        assertEquals(NOW, WeatherAPI.expiresAt(headers("Cache-Control", "private, no-store"), NOW));
+    }
+
+    @Test
+    void maxAgeZeroExpiresNow() {
+        assertEquals(NOW, WeatherAPI.expiresAt(headers("Cache-Control", "public, max-age=0"), NOW));
+    }
+
+    @Test
+    void maxAgeIsAddedToNow() {
+        assertEquals(NOW + 300_000, WeatherAPI.expiresAt(headers("Cache-Control", "public, max-age=300, s-maxage=3600"), NOW));
+    }
+
+    @Test
+    void maxAgeWinsOverExpires() {
+        HttpHeaders h = headers("Cache-Control", "max-age=60", "Expires", httpDate(NOW + 3_600_000));
+        assertEquals(NOW + 60_000, WeatherAPI.expiresAt(h, NOW));
+    }
+
+    @Test
+    void expiresInTheFuture() {
+        assertEquals(NOW + 3_600_000, WeatherAPI.expiresAt(headers("Expires", httpDate(NOW + 3_600_000)), NOW));
+    }
+
+    @Test
+    void expiresInThePastIsKept() {
+        assertEquals(NOW - 3_600_000, WeatherAPI.expiresAt(headers("Expires", httpDate(NOW - 3_600_000)), NOW));
+    }
+
+    @Test
+    void unparseableExpiresExpiresNow() {
+        assertEquals(NOW, WeatherAPI.expiresAt(headers("Expires", "0"), NOW));
+    }
+
+    @Test
+    void explicitExpiryIsHonoredEvenWhenPassed() {
+        Forecast f = forecast(NOW - 1000, NOW - 5 * 60 * 1000);
+        assertEquals(NOW - 1000, cache.expiryFor(f, NOW));
+        f.expiresAt = NOW;
+        assertEquals(NOW, cache.expiryFor(f, NOW));
+    }
+
+    @Test
+    void unknownExpiryFallsBackToUpdateTime() {
+        Forecast f = forecast(Forecast.EXPIRES_UNKNOWN, NOW - 20 * 60 * 1000);
+        assertEquals(NOW + 40 * 60 * 1000, cache.expiryFor(f, NOW));
+    }
+
+    @Test
+    void unknownExpiryWithoutUpdateTimeUsesDefaultTtl() {
+        Forecast f = forecast(Forecast.EXPIRES_UNKNOWN, 0);
+        assertEquals(NOW + DEFAULT_TTL, cache.expiryFor(f, NOW));
+    }
+
+    @Test
+    void noCacheResponseIsStoredStale() {
+        Forecast f = forecast(System.currentTimeMillis(), System.currentTimeMillis());
+        cache.put(POINT, f);
+        assertNull(cache.getIfFresh(POINT), "no-cache must be revalidated on the next read");
+        assertSame(f, cache.peek(POINT), "but is still there as a stale fallback");
+    }
+
+    @Test
+    void maxAgeResponseIsFresh() {
+        Forecast f = forecast(System.currentTimeMillis() + 60_000, 0);
+        cache.put(POINT, f);
+        assertSame(f, cache.getIfFresh(POINT));
+    }
+
+    private static Forecast forecast(long expiresAt, long updateTime) {
+        Forecast f = new Forecast();
+        f.expiresAt = expiresAt;
+        f.updateTime = updateTime;
+        return f;
+    }
+
+    private static HttpHeaders headers(String... namesAndValues) {
+        Map<String, List<String>> map = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            map.put(namesAndValues[i], Arrays.asList(namesAndValues[i + 1]));
+        }
+        return HttpHeaders.of(map, (name, value) -> true);
+    }
+
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atOffset(ZoneOffset.UTC));
+    }
+}
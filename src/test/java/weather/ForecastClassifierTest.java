@@ -0,0 +1,167 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The compiled classifier with the bundled icon-rules.txt, against the
+ * contains() chain it replaced, plus the rule format and the memo.
+ */
+class ForecastClassifierTest {
+    // the shortForecast texts the classifier was checked with when it replaced the contains() chain
+    private static final String[] SAMPLES = {
+            "Sunny", "Mostly Sunny", "Partly Sunny", "Clear", "Mostly Clear", "Partly Cloudy", "Mostly Cloudy",
+            "Cloudy", "Slight Chance Rain Showers", "Chance Rain Showers", "Rain Showers Likely", "Rain Showers",
+            "Chance Light Rain", "Light Rain Likely", "Rain", "Slight Chance Showers And Thunderstorms",
+            "Chance Showers And Thunderstorms", "Showers And Thunderstorms Likely", "Showers And Thunderstorms",
+            "Slight Chance Showers And Thunderstorms then Mostly Sunny", "Patchy Fog", "Areas Of Fog",
+            "Widespread Fog", "Chance Light Snow", "Snow", "Slight Chance Rain And Snow", "Breezy", "Windy",
+            "Areas Of Smoke", "Haze", "Thunderstorms", "Chance Thunderstorms"
+    };
+
+    private final ForecastClassifier classifier = ForecastClassifier.getDefault();
+
+    @Test
+    void samplesMatchTheOldChain() {
+        for (String text : SAMPLES) {
+            assertEquals(oldIconPath(text, false), classifier.iconPath(text, false), text);
+            assertEquals(oldIconPath(text, true), classifier.iconPath(text, true), text + " at night");
+        }
+    }
+
+    @Test
+    void randomKeywordSoupMatchesTheOldChain() {
+        String[] words = {"showers", "shower", "thunderstorm", "sunny", "clear", "cloud", "partly", "rain", "snow",
+                "wind", "fog", "patchy", "smoke", "chance", "likely", "then", "mostly", "sho", "thunder", "sno", "w"};
+        String[] glue = {" ", "", " And ", "-", "é"};
+        Random random = new Random(12);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = random.nextInt(5);
+            for (int w = 0; w < n; w++) {
+                String word = words[random.nextInt(words.length)];
+                sb.append(random.nextBoolean() ? word : word.toUpperCase(Locale.ROOT));
+                sb.append(glue[random.nextInt(glue.length)]);
+            }
+            String text = sb.toString();
+            assertEquals(oldIconPath(text, false), classifier.iconPath(text, false), text);
+            assertEquals(oldIconPath(text, true), classifier.iconPath(text, true), text);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SUNNY", "sunny", "sUnNy", "Mostly SUNNY"})
+    void caseDoesNotMatter(String text) {
+        assertEquals("clear", classifier.classify(text).name);
+    }
+
+    @Test
+    void overlappingKeywords() {
+        assertEquals("thunder", classifier.classify("Showers And Thunderstorms").name);
+        assertEquals("thunder", classifier.classify("thundershowersthunderstorm").name, "keywords inside each other");
+        assertEquals("rain", classifier.classify("Showers").name, "shower is inside showers");
+        assertEquals("rain", classifier.classify("shoshowers").name, "a false start before the keyword");
+        assertEquals("default", classifier.classify("Thunderstorms").name, "thunder needs showers as well");
+        assertEquals("clear", classifier.classify("Partly Sunny").name, "first matching rule wins");
+        assertEquals("cloudy", classifier.classify("Partly Cloudy then Rain").name);
+    }
+
+    @Test
+    void nonAsciiText() {
+        assertEquals("snow", classifier.classify("Snow ❄").name);
+        assertEquals("clear", classifier.classify("Éclaircies, Sunny").name);
+        assertEquals("default", classifier.classify("Snów").name, "a non-ASCII letter breaks the keyword");
+        assertEquals("default", classifier.classify("Ｓｕｎｎｙ").name, "fullwidth letters are not ASCII");
+        assertEquals("default", classifier.classify("WİND").name, "lowercases to w, i, combining dot, n, d");
+        assertEquals(oldIconPath("WİND", false), classifier.iconPath("WİND", false));
+        assertEquals("smoke", classifier.classify("SMOKE").name, "the Kelvin sign lowercases to k");
+        assertEquals(oldIconPath("SMOKE", false), classifier.iconPath("SMOKE", false));
+    }
+
+    @Test
+    void emptyAndNull() {
+        assertEquals("default", classifier.classify("").name);
+        assertEquals("/icons/default.png", classifier.iconPath("", true));
+        assertNull(classifier.classify(null));
+        assertNull(classifier.iconPath(null, false));
+    }
+
+    @Test
+    void memoIsClearedWhenFullAndStillAnswersTheSame() {
+        ForecastClassifier c = ForecastClassifier.parse(Arrays.asList("rain: rain -> r.gif, r.gif", "default: * -> d.gif, d.gif"));
+        ForecastClassifier.Rule rain = c.classify("Rain");
+        for (int i = 0; i < ForecastClassifier.MAX_MEMO * 2 + 10; i++) {
+            c.classify("Rain " + i);
+            assertTrue(c.memoSize() <= ForecastClassifier.MAX_MEMO);
+        }
+        assertSame(rain, c.classify("Rain"));
+        assertEquals("d.gif", c.iconPath("Sunny", true));
+        assertEquals("r.gif", c.iconPath("Rain " + ForecastClassifier.MAX_MEMO, true));
+    }
+
+    @Test
+    void orBindsTighterThanAnd() {
+        ForecastClassifier c = ForecastClassifier.parse(List.of("x: a | b & c -> x.gif, x.gif"));
+        assertNotNull(c.classify("a c"));
+        assertNotNull(c.classify("b c"));
+        assertNull(c.classify("a b"), "c is required");
+        assertNull(c.classify("c"));
+    }
+
+    @Test
+    void rulesFile() {
+        assertEquals(Arrays.asList("thunder", "clear", "cloudy", "rain", "snow", "wind", "fog", "smoke", "default"),
+                classifier.getRules().stream().map(r -> r.name).toList());
+        ForecastClassifier c = ForecastClassifier.parse(Arrays.asList("# comment", "", "  a: x -> 1, 2  "));
+        assertEquals("2", c.iconPath("X", true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no colon -> a, b", "a: x", "a: x -> only-one", "a: x | -> a, b", "a: x & -> a, b", "a: café -> a, b"})
+    void badRulesAreRejected(String line) {
+        assertThrows(IllegalArgumentException.class, () -> ForecastClassifier.parse(List.of(line)));
+    }
+
+    @Test
+    void atMost64Keywords() {
+        StringBuilder expression = new StringBuilder("k0");
+        for (int i = 1; i < 65; i++) {
+            expression.append(" | k").append(i);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ForecastClassifier.parse(List.of("a: " + expression + " -> a, b")));
+    }
+
+    // getWeatherIconPath before the classifier, with the dead "Mostly Cloudy" check left out
+    private static String oldIconPath(String description, boolean isNight) {
+        String iconPath = "/icons/default.png";
+        description = description.toLowerCase(Locale.ROOT);
+        if (description.contains("showers") && description.contains("thunderstorm")) {
+            iconPath = "/icons/thunder.gif";
+        } else if (description.contains("sunny") || description.contains("clear")) {
+            iconPath = isNight ? "/icons/clearnight.gif" : "/icons/sunnysky.gif";
+        } else if (description.contains("cloud") || description.contains("partly")) {
+            iconPath = isNight ? "/icons/mostlyclear.gif" : "/icons/clouldysky.gif";
+        } else if (description.contains("rain") || description.contains("shower")
+                || (description.contains("chance") && description.contains("rain"))) {
+            iconPath = "/icons/rain.gif";
+        } else if (description.contains("snow")) {
+            iconPath = "/icons/snow.gif";
+        } else if (description.contains("wind")) {
+            iconPath = "/icons/wind.gif";
+        } else if (description.contains("fog") || description.contains("patchy")) {
+            iconPath = isNight ? "/icons/cloudy.gif" : "/icons/clouldysky.gif";
+        } else if (description.contains("smoke")) {
+            iconPath = "/icons/foggy.gif";
+        }
+        return iconPath;
+    }
+}
@@ -0,0 +1,136 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Validators per grid point: the conditions a request gets, what a 304
+ * is answered with, the counters, and the LRU bound.
+ */
+class ForecastValidatorsTest {
+    private static final GridPoint POINT = new GridPoint("LOT", 77, 70);
+    private static final String ETAG = "\"abc\"";
+    private static final String LAST_MODIFIED = "Mon, 14 Apr 2025 10:42:31 GMT";
+
+    private final ForecastValidators validators = new ForecastValidators(4);
+
+    @Test
+    void noEntryMeansAnUnconditionalRequest() {
+        HttpRequest.Builder builder = request();
+        assertNull(validators.addConditions(POINT, builder));
+        HttpRequest r = builder.build();
+        assertTrue(r.headers().firstValue("If-None-Match").isEmpty());
+        assertTrue(r.headers().firstValue("If-Modified-Since").isEmpty());
+    }
+
+    @Test
+    void storedValidatorsAreSent() {
+        validators.storeFull(POINT, headers("ETag", ETAG, "Last-Modified", LAST_MODIFIED), forecast());
+        HttpRequest.Builder builder = request();
+        assertNotNull(validators.addConditions(POINT, builder));
+        HttpRequest r = builder.build();
+        assertEquals(ETAG, r.headers().firstValue("If-None-Match").orElse(null));
+        assertEquals(LAST_MODIFIED, r.headers().firstValue("If-Modified-Since").orElse(null));
+    }
+
+    @Test
+    void onlyTheValidatorsTheServerGaveAreSent() {
+        validators.storeFull(POINT, headers("Last-Modified", LAST_MODIFIED), forecast());
+        HttpRequest.Builder builder = request();
+        validators.addConditions(POINT, builder);
+        HttpRequest r = builder.build();
+        assertTrue(r.headers().firstValue("If-None-Match").isEmpty());
+        assertEquals(LAST_MODIFIED, r.headers().firstValue("If-Modified-Since").orElse(null));
+    }
+
+    @Test
+    void responseWithoutValidatorsForgetsThePoint() {
+        validators.storeFull(POINT, headers("ETag", ETAG), forecast());
+        validators.storeFull(POINT, headers(), forecast());
+        assertNull(validators.addConditions(POINT, request()));
+        assertEquals(0, validators.size());
+        assertEquals(2, validators.getFullResponses());
+    }
+
+    @Test
+    void notModifiedReusesTheStoredPeriodsInANewList() {
+        Forecast full = forecast();
+        validators.storeFull(POINT, headers("ETag", ETAG), full);
+        ForecastValidators.Entry sent = validators.addConditions(POINT, request());
+
+        Forecast reused = validators.notModified(sent, 12345);
+        assertEquals(full.periods, reused.periods);
+        assertSame(full.periods.get(0), reused.periods.get(0), "the periods are not parsed again");
+        assertNotSame(full.periods, reused.periods);
+        assertEquals(full.updateTime, reused.updateTime);
+        assertEquals(full.generatedAt, reused.generatedAt);
+        assertEquals(12345, reused.expiresAt);
+
+        reused.periods.clear();
+        full.periods.clear();
+        assertEquals(2, validators.notModified(sent, 0).periods.size(), "callers can't change what is stored");
+        assertEquals(2, validators.getNotModifiedResponses());
+        assertEquals(1, validators.getFullResponses());
+    }
+
+    @Test
+    void notModifiedWithoutAnEntryIsNullAndNotCounted() {
+        assertNull(validators.notModified(null, 0));
+        assertEquals(0, validators.getNotModifiedResponses());
+    }
+
+    @Test
+    void notModifiedAfterEvictionUsesWhatTheRequestWasSentWith() {
+        validators.storeFull(POINT, headers("ETag", ETAG), forecast());
+        ForecastValidators.Entry sent = validators.addConditions(POINT, request());
+        validators.clear();
+        assertEquals(2, validators.notModified(sent, 0).periods.size());
+    }
+
+    @Test
+    void leastRecentlyUsedPointIsEvicted() {
+        for (int i = 0; i < 4; i++) {
+            validators.storeFull(new GridPoint("LOT", i, 0), headers("ETag", "\"" + i + "\""), forecast());
+        }
+        validators.addConditions(new GridPoint("LOT", 0, 0), request()); // 1 is now the eldest
+        validators.storeFull(POINT, headers("ETag", ETAG), forecast());
+        assertEquals(4, validators.size());
+        assertNull(validators.addConditions(new GridPoint("LOT", 1, 0), request()));
+        assertNotNull(validators.addConditions(new GridPoint("LOT", 0, 0), request()));
+        assertNotNull(validators.addConditions(POINT, request()));
+    }
+
+    private static HttpRequest.Builder request() {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1/gridpoints/LOT/77,70/forecast"));
+    }
+
+    private static Forecast forecast() {
+        Forecast f = new Forecast();
+        f.generatedAt = 1_000;
+        f.updateTime = 2_000;
+        Period a = new Period();
+        a.name = "Today";
+        Period b = new Period();
+        b.name = "Tonight";
+        f.periods = new ArrayList<>(Arrays.asList(a, b));
+        return f;
+    }
+
+    private static HttpHeaders headers(String... namesAndValues) {
+        Map<String, List<String>> map = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            map.put(namesAndValues[i], Arrays.asList(namesAndValues[i + 1]));
+        }
+        return HttpHeaders.of(map, (name, value) -> true);
+    }
+}
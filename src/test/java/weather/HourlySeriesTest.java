@@ -0,0 +1,130 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Columnar hourly forecasts: parsing the recorded /forecast/hourly response,
+ * range queries, and per-series condition ids.
+ */
+class HourlySeriesTest {
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void parsesTheFixture() throws IOException {
+        HourlySeries series = fixture();
+        assertEquals(156, series.size());
+        assertEquals(millis("2025-04-14T05:00:00-05:00"), series.startTime(0));
+        assertEquals(millis("2025-04-20T16:00:00-05:00"), series.startTime(155));
+        assertEquals(42, series.temperature(0));
+        assertEquals(HourlySeries.UNKNOWN_PRECIPITATION, series.precipitation(0));
+        assertEquals("Mostly Clear", series.condition(0));
+        assertFalse(series.isDaytime(0));
+        assertEquals(millis("2025-04-14T10:42:31+00:00"), series.generatedAt);
+        assertEquals(9, series.conditionCount());
+    }
+
+    @Test
+    void conditionIdsAreLocalToTheSeries() {
+        HourlySeries a = new HourlySeries.Builder()
+                .add(0, 50, 10, "Sunny", true)
+                .add(HOUR, 51, 20, "Cloudy", true)
+                .add(2 * HOUR, 52, 30, "Sunny", true)
+                .build();
+        HourlySeries b = new HourlySeries.Builder()
+                .add(0, 50, 10, "Cloudy", true)
+                .build();
+        assertEquals(2, a.conditionCount());
+        assertEquals(a.conditionId(0), a.conditionId(2));
+        assertEquals(2, a.countCondition(a.conditionId("Sunny")));
+        assertEquals("Cloudy", a.conditionName(a.conditionId(1)));
+        assertEquals(0, b.conditionId("Cloudy"));
+        assertEquals(-1, b.conditionId("Sunny"));
+    }
+
+    @Test
+    void manyDistinctConditionsOverTimeDoNotFail() {
+        // more distinct texts than a short can number, spread over many responses
+        for (int i = 0; i < HourlySeries.MAX_CONDITIONS + 1000; i++) {
+            HourlySeries s = new HourlySeries.Builder(1).add(0, 50, 0, "Condition " + i, true).build();
+            assertEquals("Condition " + i, s.condition(0));
+            assertEquals(0, s.conditionId(0));
+        }
+    }
+
+    @Test
+    void nullConditionIsEmptyText() {
+        HourlySeries s = new HourlySeries.Builder().add(0, 50, 0, null, true).build();
+        assertEquals("", s.condition(0));
+    }
+
+    @Test
+    void subSeriesAndSliceShareTheColumns() throws IOException {
+        HourlySeries series = fixture();
+        long from = series.startTime(10);
+        HourlySeries day = series.subSeries(from, from + 24 * HOUR);
+        assertEquals(24, day.size());
+        assertEquals(series.startTime(10), day.startTime(0));
+        assertEquals(series.condition(33), day.condition(23));
+        assertEquals(series.getColumnBytes(), day.getColumnBytes());
+
+        HourlySeries slice = day.slice(2, 5);
+        assertEquals(3, slice.size());
+        assertEquals(series.temperature(12), slice.temperature(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.temperature(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> day.slice(5, 2));
+    }
+
+    @Test
+    void indexAtFindsTheContainingHour() throws IOException {
+        HourlySeries series = fixture();
+        assertEquals(0, series.indexAt(series.startTime(0)));
+        assertEquals(3, series.indexAt(series.startTime(3) + HOUR / 2));
+        assertEquals(-1, series.indexAt(series.startTime(0) - 1));
+        assertEquals(155, series.indexAt(series.startTime(155) + HOUR - 1));
+        assertEquals(-1, series.indexAt(series.startTime(155) + HOUR));
+    }
+
+    @Test
+    void hoursMustBeInOrder() {
+        HourlySeries.Builder builder = new HourlySeries.Builder().add(HOUR, 50, 0, "Sunny", true);
+        assertThrows(IllegalArgumentException.class, () -> builder.add(0, 50, 0, "Sunny", true));
+    }
+
+    @Test
+    void nullFieldsInAnHourAreTolerated() throws IOException {
+        String json = "{\"properties\": {\"generatedAt\": null, \"periods\": ["
+                + "{\"startTime\": \"2025-04-14T05:00:00-05:00\", \"temperature\": 42, \"temperatureUnit\": null,"
+                + " \"shortForecast\": null, \"probabilityOfPrecipitation\": null},"
+                + "{\"startTime\": null, \"temperature\": 43, \"shortForecast\": \"Sunny\"},"
+                + "{\"startTime\": \"2025-04-14T07:00:00-05:00\", \"temperature\": null,"
+                + " \"shortForecast\": \"Sunny\", \"probabilityOfPrecipitation\": {\"value\": null}}"
+                + "]}}";
+        HourlySeries series = ForecastParser.parseHourly(json.getBytes(StandardCharsets.UTF_8));
+        assertEquals(2, series.size(), "the hour without a start time is left out");
+        assertEquals(millis("2025-04-14T05:00:00-05:00"), series.startTime(0));
+        assertEquals("", series.condition(0));
+        assertEquals(HourlySeries.UNKNOWN_PRECIPITATION, series.precipitation(0));
+        assertEquals("F", series.temperatureUnit);
+        assertEquals("Sunny", series.condition(1));
+        assertEquals(0, series.temperature(1));
+        assertEquals(HourlySeries.UNKNOWN_PRECIPITATION, series.precipitation(1));
+        assertEquals(0, series.generatedAt);
+    }
+
+    private static long millis(String iso) {
+        return OffsetDateTime.parse(iso).toInstant().toEpochMilli();
+    }
+
+    private static HourlySeries fixture() throws IOException {
+        try (InputStream in = HourlySeriesTest.class.getResourceAsStream("/fixtures/forecast-hourly-LOT-77-70.json")) {
+            return ForecastParser.parseHourly(in);
+        }
+    }
+}
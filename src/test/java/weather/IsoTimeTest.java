@@ -0,0 +1,144 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * IsoTime against java.time and against Jackson's StdDateFormat, the parser
+ * behind the old java.util.Date fields, plus how Period and Properties
+ * expose the parsed times.
+ */
+class IsoTimeTest {
+    private static final int RANDOM_INSTANTS = 200_000;
+    private static final DateTimeFormatter WHOLE_SECONDS = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ssXXX");
+    private static final DateTimeFormatter WITH_MILLIS = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSXXX");
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-04-14T06:00:00-05:00", "2025-04-14T10:42:31+00:00", "2025-11-02T01:00:00-06:00",
+            "2025-12-31T23:59:59-10:00", "2026-01-01T00:00:00Z", "2024-02-29T12:00:00+05:30",
+            "2025-04-14T06:00:00.5-05:00", "2025-04-14T06:00:00.123456789Z", "1969-12-31T23:59:59.999Z",
+            "2025-04-14T06:00:00.Z"
+    })
+    void agreesWithJavaTime(String text) {
+        OffsetDateTime expected = OffsetDateTime.parse(text);
+        assertEquals(expected.toInstant().toEpochMilli(), IsoTime.parseMillis(text));
+        assertEquals(expected.getOffset().getTotalSeconds() / 60, IsoTime.parseOffsetMinutes(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-02-30T00:00:00Z", "2023-02-29T00:00:00Z", "2025-04-31T00:00:00-05:00", "2025-00-10T00:00:00Z",
+            "2025-13-10T00:00:00Z", "2025-04-00T00:00:00Z", "2025-04-14T24:00:00Z", "2025-04-14T06:60:00Z",
+            "2025-04-14T06:00:60Z", "2025-04-14T06:00:00+19:00", "2025-04-14T06:00:00+05:60",
+            "2025-04-14T06:00:00.1234567891Z", "2025-04-14 06:00:00Z", "yesterday"
+    })
+    void rejectsWhatJavaTimeRejects(String text) {
+        assertThrows(DateTimeException.class, () -> OffsetDateTime.parse(text));
+        assertThrows(IllegalArgumentException.class, () -> IsoTime.parseMillis(text));
+        assertThrows(IllegalArgumentException.class, () -> IsoTime.parseOffsetMinutes(text));
+    }
+
+    @Test
+    void missingTimestampIsNoTime() {
+        assertEquals(IsoTime.NO_TIME, IsoTime.parseMillis(null));
+        assertEquals(IsoTime.NO_TIME, IsoTime.parseMillis(""));
+        assertEquals(0, IsoTime.parseOffsetMinutes(null));
+        assertEquals(0, IsoTime.parseOffsetMinutes(""));
+    }
+
+    @Test
+    void daysInMonth() {
+        assertEquals(29, IsoTime.daysInMonth(2024, 2));
+        assertEquals(28, IsoTime.daysInMonth(2100, 2));
+        assertEquals(29, IsoTime.daysInMonth(2000, 2));
+        assertEquals(30, IsoTime.daysInMonth(2025, 4));
+        assertEquals(31, IsoTime.daysInMonth(2025, 12));
+    }
+
+    @Test
+    void randomInstantsMatchJavaTimeAndTheOldParser() throws ParseException {
+        Random random = new Random(42);
+        StdDateFormat oldParser = new StdDateFormat();
+        long from = OffsetDateTime.parse("1950-01-01T00:00:00Z").toInstant().toEpochMilli();
+        long to = OffsetDateTime.parse("2100-01-01T00:00:00Z").toInstant().toEpochMilli();
+        for (int i = 0; i < RANDOM_INSTANTS; i++) {
+            long millis = from + (long) (random.nextDouble() * (to - from));
+            if (random.nextBoolean()) {
+                millis -= millis % 1000; // most API timestamps have no fraction
+            }
+            int offsetMinutes = (random.nextInt(4) == 0 ? 0 : random.nextInt(2 * 14 * 4 + 1) - 14 * 4) * 15;
+            OffsetDateTime time = Instant.ofEpochMilli(millis).atOffset(ZoneOffset.ofTotalSeconds(offsetMinutes * 60));
+            String text = (millis % 1000 == 0 ? WHOLE_SECONDS : WITH_MILLIS).format(time);
+
+            assertEquals(millis, IsoTime.parseMillis(text), text);
+            assertEquals(offsetMinutes, IsoTime.parseOffsetMinutes(text), text);
+            assertEquals(OffsetDateTime.parse(text).toInstant().toEpochMilli(), IsoTime.parseMillis(text), text);
+            assertEquals(oldParser.parse(text).getTime(), IsoTime.parseMillis(text), text);
+        }
+    }
+
+    @Test
+    void randomDigitStringsAreAcceptedOrRejectedLikeJavaTime() {
+        Random random = new Random(7);
+        for (int i = 0; i < RANDOM_INSTANTS; i++) {
+            String text = String.format("%04d-%02d-%02dT%02d:%02d:%02d%s",
+                    1900 + random.nextInt(300), random.nextInt(14), random.nextInt(33),
+                    random.nextInt(26), random.nextInt(62), random.nextInt(62),
+                    random.nextInt(5) == 0 ? "Z" : String.format("%c%02d:%02d",
+                            random.nextBoolean() ? '+' : '-', random.nextInt(20), random.nextInt(62)));
+            OffsetDateTime expected;
+            try {
+                expected = OffsetDateTime.parse(text);
+            } catch (DateTimeException e) {
+                assertThrows(IllegalArgumentException.class, () -> IsoTime.parseMillis(text), text);
+                continue;
+            }
+            assertEquals(expected.toInstant().toEpochMilli(), IsoTime.parseMillis(text), text);
+            assertEquals(expected.getOffset().getTotalSeconds() / 60, IsoTime.parseOffsetMinutes(text), text);
+        }
+    }
+
+    @Test
+    void periodKeepsDatesAndMillis() throws IOException {
+        Period period = WeatherAPI.MAPPER.readerFor(Period.class).readValue(
+                "{\"number\":1,\"startTime\":\"2025-04-14T06:00:00-05:00\",\"endTime\":null}");
+        long start = OffsetDateTime.parse("2025-04-14T06:00:00-05:00").toInstant().toEpochMilli();
+        assertEquals(new Date(start), period.startTime);
+        assertEquals(start, period.startTimeMillis);
+        assertEquals(-300, period.startOffsetMinutes);
+        assertNull(period.endTime, "a JSON null is a missing time, not a failed parse");
+        assertEquals(IsoTime.NO_TIME, period.endTimeMillis);
+    }
+
+    @Test
+    void propertiesKeepDatesAndMillis() throws IOException {
+        Root root;
+        try (InputStream in = IsoTimeTest.class.getResourceAsStream("/fixtures/forecast-LOT-77-70.json")) {
+            root = WeatherAPI.MAPPER.readerFor(Root.class).readValue(in);
+        }
+        Properties properties = root.properties;
+        assertNotNull(properties.updateTime);
+        assertEquals(properties.updateTimeMillis, properties.updateTime.getTime());
+        assertEquals(properties.generatedAtMillis, properties.generatedAt.getTime());
+        Period first = properties.periods.get(0);
+        assertEquals(first.startTimeMillis, first.startTime.getTime());
+        assertEquals(first.endTimeMillis, first.endTime.getTime());
+    }
+}
@@ -0,0 +1,88 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Burst size, refill rate and waiting for a permit, on a clock the test
+ * moves by hand.
+ */
+class RateLimiterTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // 10 per second (one every 100 ms), at most 5 at once
+    private final AtomicLong now = new AtomicLong(1_000_000_000_000L);
+    private final RateLimiter limiter = new RateLimiter(10, 5, now::get);
+
+    @Test
+    void startsWithAFullBurst() {
+        assertEquals(5, limiter.getAvailablePermits());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(), "permit " + i);
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(0, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() {
+        drain();
+        now.addAndGet(99 * MS);
+        assertFalse(limiter.tryAcquire());
+        now.addAndGet(MS);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void refillStopsAtTheBurstSize() {
+        drain();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(5, limiter.getAvailablePermits());
+        drain();
+    }
+
+    @Test
+    void sustainedRateIsPermitsPerSecond() {
+        int granted = 0;
+        for (int ms = 0; ms < 10_000; ms++) {
+            if (limiter.tryAcquire()) {
+                granted++;
+            }
+            now.addAndGet(MS);
+        }
+        assertEquals(5 + 100 - 1, granted, "the burst, then one every 100 ms");
+    }
+
+    @Test
+    void emptyBucketReservesInOrder() {
+        drain();
+        assertEquals(100 * MS, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(200 * MS, limiter.reserve(Long.MAX_VALUE));
+        assertEquals(2, limiter.getDelayed());
+        assertEquals(300, limiter.getWaitedMillis());
+        now.addAndGet(250 * MS);
+        assertFalse(limiter.tryAcquire(), "the permit due at 200 ms went to the second reservation");
+    }
+
+    @Test
+    void waitPastTheLimitIsRejectedAndTakesNothing() {
+        drain();
+        long rejected = limiter.getRejected();
+        assertEquals(-1, limiter.reserve(50 * MS));
+        assertEquals(rejected + 1, limiter.getRejected());
+        now.addAndGet(100 * MS);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    private void drain() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+    }
+}
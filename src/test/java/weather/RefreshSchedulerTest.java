@@ -0,0 +1,217 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RefreshScheduler with a timer that only records what was scheduled (the test
+ * fires the tasks itself), a fixed clock, the largest jitter every time, and
+ * fetches that succeed or fail on request.
+ */
+class RefreshSchedulerTest {
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long MINUTE = 60 * 1000;
+    private static final GridPoint POINT = new GridPoint("LOT", 77, 70);
+
+    // a task the scheduler handed to the timer, and how long it asked to wait
+    private static final class Task {
+        final Runnable command;
+        final long delayMillis;
+        final ScheduledFuture<?> future;
+
+        Task(Runnable command, long delayMillis, ScheduledFuture<?> future) {
+            this.command = command;
+            this.delayMillis = delayMillis;
+            this.future = future;
+        }
+    }
+
+    // schedules everything a day out, so nothing fires by itself, but cancel still works
+    private static final class RecordingTimer extends ScheduledThreadPoolExecutor {
+        final List<Task> tasks = new ArrayList<>();
+
+        RecordingTimer() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            ScheduledFuture<?> future = super.schedule(command, 1, TimeUnit.DAYS);
+            tasks.add(new Task(command, unit.toMillis(delay), future));
+            return future;
+        }
+
+        // runs the newest task that wasn't cancelled, and returns its delay
+        long fireLatest() {
+            for (int i = tasks.size() - 1; i >= 0; i--) {
+                Task t = tasks.get(i);
+                if (!t.future.isCancelled()) {
+                    t.future.cancel(false);
+                    t.command.run();
+                    return t.delayMillis;
+                }
+            }
+            throw new AssertionError("nothing scheduled");
+        }
+
+        long latestDelay() {
+            return tasks.get(tasks.size() - 1).delayMillis;
+        }
+    }
+
+    private final ForecastCache cache = new ForecastCache(8, 10 * MINUTE, Runnable::run);
+    private final RecordingTimer timer = new RecordingTimer();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final RefreshScheduler scheduler = new RefreshScheduler(cache, timer, () -> NOW, bound -> bound - 1,
+            point -> {
+                fetches.incrementAndGet();
+                if (failing.get()) {
+                    return CompletableFuture.failedFuture(new IOException("HTTP 503"));
+                }
+                cache.put(point, forecastExpiringAt(NOW + 60 * MINUTE));
+                return CompletableFuture.completedFuture(cache.peek(point));
+            });
+
+    @AfterEach
+    void stop() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void delayIsExpiryLessLeadAndJitter() {
+        // an hour left: 2 minutes lead (the cap), up to a minute of jitter (the cap)
+        cache.put(POINT, forecastExpiringAt(NOW + 60 * MINUTE));
+        assertEquals(60 * MINUTE - 2 * MINUTE - (MINUTE - 1), scheduler.delayFor(POINT, NOW));
+
+        // 50 seconds left: a fifth as lead, a tenth as jitter
+        cache.put(POINT, forecastExpiringAt(NOW + 50_000));
+        assertEquals(50_000 - 10_000 - (5_000 - 1), scheduler.delayFor(POINT, NOW));
+
+        cache.put(POINT, forecastExpiringAt(NOW - 1));
+        assertEquals(0, scheduler.delayFor(POINT, NOW));
+    }
+
+    @Test
+    void startWaitsForTheCachedExpiry() {
+        cache.put(POINT, forecastExpiringAt(NOW + 60 * MINUTE));
+        scheduler.add(POINT);
+        assertTrue(timer.tasks.isEmpty(), "nothing is scheduled before start");
+        scheduler.start();
+        assertEquals(1, timer.tasks.size());
+        assertEquals(scheduler.delayFor(POINT, NOW), timer.latestDelay());
+    }
+
+    @Test
+    void nothingCachedIsFetchedWithinTheResumeSpread() {
+        scheduler.add(POINT);
+        scheduler.start();
+        assertEquals(RefreshScheduler.RESUME_SPREAD_MILLIS - 1, timer.latestDelay());
+        timer.fireLatest();
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void successWaitsForTheNewExpiry() {
+        scheduler.add(POINT);
+        scheduler.start();
+        List<GridPoint> refreshed = new ArrayList<>();
+        scheduler.addListener((point, forecast) -> refreshed.add(point));
+        timer.fireLatest();
+        assertEquals(List.of(POINT), refreshed);
+        assertEquals(scheduler.delayFor(POINT, NOW), timer.latestDelay());
+    }
+
+    @Test
+    void failuresBackOffUpToTheCap() {
+        failing.set(true);
+        List<Throwable> errors = new ArrayList<>();
+        scheduler.addListener(new RefreshScheduler.Listener() {
+            @Override
+            public void refreshed(GridPoint point, Forecast forecast) {
+            }
+
+            @Override
+            public void failed(GridPoint point, Throwable error) {
+                errors.add(error);
+            }
+        });
+        scheduler.add(POINT);
+        scheduler.start();
+
+        long[] expected = {30_000, 60_000, 120_000, 240_000, 480_000, 600_000, 600_000};
+        for (long base : expected) {
+            timer.fireLatest();
+            assertEquals(base / 2 + (base / 2 - 1), timer.latestDelay(), "after " + errors.size() + " failures");
+        }
+        assertEquals(expected.length, errors.size());
+
+        // one success resets the backoff
+        failing.set(false);
+        timer.fireLatest();
+        failing.set(true);
+        timer.fireLatest();
+        assertEquals(30_000 / 2 + (30_000 / 2 - 1), timer.latestDelay());
+    }
+
+    @Test
+    void workThatCameDueWhilePausedRunsOnResume() {
+        GridPoint other = new GridPoint("LOT", 78, 70);
+        cache.put(other, forecastExpiringAt(NOW + 60 * MINUTE));
+        scheduler.add(POINT);
+        scheduler.add(other);
+        scheduler.start();
+
+        scheduler.pause();
+        assertTrue(scheduler.isPaused());
+        Task due = taskWithDelay(RefreshScheduler.RESUME_SPREAD_MILLIS - 1);
+        due.command.run();
+        assertEquals(0, fetches.get(), "nothing is fetched while paused");
+        int scheduledBefore = timer.tasks.size();
+
+        scheduler.resume();
+        assertFalse(scheduler.isPaused());
+        assertEquals(scheduledBefore + 1, timer.tasks.size(), "only the point that came due is rescheduled");
+        assertEquals(RefreshScheduler.RESUME_SPREAD_MILLIS - 1, timer.latestDelay());
+        timer.fireLatest();
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void removedPointIsNotFetched() {
+        scheduler.add(POINT);
+        scheduler.start();
+        Task pending = timer.tasks.get(0);
+        scheduler.remove(POINT);
+        assertTrue(pending.future.isCancelled());
+        pending.command.run(); // a timer that fired anyway
+        assertEquals(0, fetches.get());
+    }
+
+    private Task taskWithDelay(long delayMillis) {
+        for (Task t : timer.tasks) {
+            if (t.delayMillis == delayMillis) {
+                return t;
+            }
+        }
+        throw new AssertionError("no task scheduled " + delayMillis + " ms out");
+    }
+
+    private static Forecast forecastExpiringAt(long expiresAt) {
+        Forecast forecast = new Forecast();
+        forecast.expiresAt = expiresAt;
+        return forecast;
+    }
+}
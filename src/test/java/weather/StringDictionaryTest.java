@@ -0,0 +1,110 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * StringDictionary: one shared instance per text, the maxEntries bound,
+ * and the hit/miss/rejected counters.
+ */
+class StringDictionaryTest {
+
+    @Test
+    void equalTextsShareOneInstance() {
+        StringDictionary dictionary = new StringDictionary(16);
+        String first = new String("Mostly Sunny");
+        String second = new String("Mostly Sunny");
+        assertSame(first, dictionary.intern(first));
+        assertSame(first, dictionary.intern(second));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    void nullStaysNull() {
+        StringDictionary dictionary = new StringDictionary(16);
+        assertNull(dictionary.intern(null));
+        assertEquals(0, dictionary.size());
+        assertEquals(0, dictionary.getMisses());
+    }
+
+    @Test
+    void fullDictionaryReturnsNewTextsAsTheyAre() {
+        StringDictionary dictionary = new StringDictionary(2);
+        String a = dictionary.intern("a");
+        dictionary.intern("b");
+        String c = new String("c");
+        assertSame(c, dictionary.intern(c));
+        assertNotSame(c, dictionary.intern(new String("c")), "a rejected text is not stored");
+        assertEquals(2, dictionary.size());
+        assertSame(a, dictionary.intern(new String("a")), "texts stored before it filled are still shared");
+    }
+
+    @Test
+    void countersAddUp() {
+        StringDictionary dictionary = new StringDictionary(2);
+        dictionary.intern("a");   // miss
+        dictionary.intern("a");   // hit
+        dictionary.intern("b");   // miss
+        dictionary.intern("c");   // miss, rejected
+        dictionary.intern("c");   // miss, rejected
+        dictionary.intern("b");   // hit
+        assertEquals(2, dictionary.getHits());
+        assertEquals(4, dictionary.getMisses());
+        assertEquals(2, dictionary.getRejected());
+        assertEquals(1.0 / 3, dictionary.getHitRate(), 1e-9);
+        assertTrue(dictionary.describe().startsWith("strings: 2/2"), dictionary.describe());
+    }
+
+    @Test
+    void zeroEntriesTurnsItOff() {
+        StringDictionary dictionary = new StringDictionary(0);
+        String s = new String("F");
+        assertSame(s, dictionary.intern(s));
+        assertEquals(0, dictionary.size());
+        assertEquals(0, dictionary.getHits() + dictionary.getMisses() + dictionary.getRejected());
+        assertEquals(0, dictionary.getHitRate());
+    }
+
+    @Test
+    void negativeBoundIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(-1));
+    }
+
+    @Test
+    void concurrentInternsAgreeOnOneInstance() throws Exception {
+        StringDictionary dictionary = new StringDictionary(64);
+        int threads = 8;
+        String[][] seen = new String[threads][];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                String[] mine = new String[100];
+                for (int i = 0; i < mine.length; i++) {
+                    mine[i] = dictionary.intern(new String("text " + i));
+                }
+                seen[id] = mine;
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        assertEquals(64, dictionary.size());
+        // each text that got in is the one instance every thread was handed
+        int stored = 0;
+        for (int i = 0; i < 100; i++) {
+            String probe = new String("text " + i);
+            String shared = dictionary.intern(probe);
+            if (shared == probe) {
+                continue; // rejected once the dictionary filled
+            }
+            stored++;
+            for (String[] mine : seen) {
+                assertSame(shared, mine[i], "text " + i);
+            }
+        }
+        assertEquals(64, stored);
+    }
+}
@@ -0,0 +1,21 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shutting a client down releases its HttpClient, not just its worker threads.
+ */
+class WeatherClientTest {
+
+    @Test
+    void shutdownTerminatesTheHttpClient() {
+        WeatherClient client = new WeatherClient("http://127.0.0.1:9/", Duration.ofSeconds(1), Duration.ofSeconds(1));
+        assertEquals("http://127.0.0.1:9", client.getBaseUrl());
+        client.shutdown();
+        assertTrue(client.getHttpClient().isTerminated());
+    }
+}
@@ -0,0 +1,36 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * WindDirection.parse against the enum's own names and bearings.
+ */
+class WindDirectionTest {
+
+    @Test
+    void everyCompassPointParses() {
+        for (WindDirection d : WindDirection.values()) {
+            assertSame(d, WindDirection.parse(d.name()));
+        }
+    }
+
+    @Test
+    void bearingsAreSixteenEvenSteps() {
+        WindDirection[] all = WindDirection.values();
+        assertEquals(16, all.length);
+        for (int i = 0; i < all.length; i++) {
+            assertEquals(i * 22.5f, all[i].degrees, 0f, all[i].name());
+        }
+    }
+
+    @Test
+    void unknownValueIsNull() {
+        assertNull(WindDirection.parse(null));
+        assertNull(WindDirection.parse(""));
+        assertNull(WindDirection.parse("NNNE"));
+        assertNull(WindDirection.parse("nw"));
+        assertNull(WindDirection.parse(" N"));
+    }
+}
@@ -0,0 +1,61 @@
+package weather;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * WindSpeed on the windSpeed texts the API sends, and on ones it shouldn't.
+ */
+class WindSpeedTest {
+
+    @Test
+    void singleSpeed() {
+        assertRange(5, 5, "5 mph");
+    }
+
+    @Test
+    void rangeInMph() {
+        assertRange(10, 15, "10 to 15 mph");
+    }
+
+    @Test
+    void rangeInKmh() {
+        assertRange(20, 30, "20 to 30 km/h");
+    }
+
+    @Test
+    void noNumberIsUnknown() {
+        assertRange(WindSpeed.UNKNOWN, WindSpeed.UNKNOWN, null);
+        assertRange(WindSpeed.UNKNOWN, WindSpeed.UNKNOWN, "");
+        assertRange(WindSpeed.UNKNOWN, WindSpeed.UNKNOWN, "Calm");
+    }
+
+    @Test
+    void maxBelowMinIsRaisedToMin() {
+        assertRange(15, 15, "15 to 10 mph");
+    }
+
+    @Test
+    void secondNumberWithoutToIsIgnored() {
+        assertRange(10, 10, "10 mph, gusts 25");
+    }
+
+    @Test
+    void largestIntIsKept() {
+        assertRange(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE + " mph");
+    }
+
+    @Test
+    void overflowingNumberIsUnknown() {
+        assertRange(WindSpeed.UNKNOWN, WindSpeed.UNKNOWN, "2147483648 mph");
+        assertRange(WindSpeed.UNKNOWN, WindSpeed.UNKNOWN, "99999999999999999999 mph");
+        assertRange(WindSpeed.UNKNOWN, WindSpeed.UNKNOWN, "10 to 99999999999 mph");
+    }
+
+    private static void assertRange(int min, int max, String text) {
+        long range = WindSpeed.parse(text);
+        assertEquals(min, WindSpeed.min(range), "min of " + text);
+        assertEquals(max, WindSpeed.max(range), "max of " + text);
+    }
+}